@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Outcome(id = "1, 1, 1", expect = ACCEPTABLE, desc = "Checks executed one after another")
+@Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = ACCEPTABLE, desc = "One check rejected")
+@Outcome(expect = FORBIDDEN, desc = "Permits exceeded or leaked")
+@State
+public class HealthBulkheadStress {
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+    private final HealthIndicator sut = bulkhead.isolate(() -> {
+        final int concurrency = running.incrementAndGet();
+        running.decrementAndGet();
+        return Health.up().withDetail("concurrency", concurrency).build();
+    });
+
+    @Actor
+    public void first(III_Result r) {
+        r.r1 = concurrency(sut.health());
+    }
+
+    @Actor
+    public void second(III_Result r) {
+        r.r2 = concurrency(sut.health());
+    }
+
+    @Arbiter
+    public void permits(III_Result r) {
+        r.r3 = bulkhead.getAvailablePermits();
+    }
+
+    private static int concurrency(Health health) {
+        final Object concurrency = health.getDetails().get("concurrency");
+        return concurrency == null ? 0 : (Integer) concurrency;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Outcome(id = "1, 1, 1", expect = ACCEPTABLE, desc = "Both refreshes share one check")
+@Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = ACCEPTABLE,
+    desc = "Second refresh sees the finished check and skips")
+@Outcome(expect = FORBIDDEN, desc = "Indicator checked twice or not at all")
+@State
+public class HealthCheckControlStress {
+
+    private final AtomicInteger checks = new AtomicInteger();
+    private final HealthCheckControl sut = HealthCheckControl.create()
+        .withIndicator("foo", MutableHealthIndicator.wrap(() -> {
+            checks.incrementAndGet();
+            return Health.up().build();
+        }))
+        .parallelism(1)
+        .build();
+
+    @Actor
+    public void first(III_Result r) {
+        r.r1 = sut.refresh("foo").size();
+    }
+
+    @Actor
+    public void second(III_Result r) {
+        r.r2 = sut.refresh("foo").size();
+    }
+
+    @Arbiter
+    public void checks(III_Result r) {
+        r.r3 = checks.get();
+        sut.destroy();
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Outcome(id = "1, 1, 1", expect = ACCEPTABLE, desc = "Lazy detail calculated once within permit")
+@Outcome(expect = FORBIDDEN, desc = "Lazy detail calculated twice, rejected or permit leaked")
+@State
+public class HealthDetailEnhancerStress {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+    private final LazyHealthDetail detail = (LazyHealthDetail) HealthDetailEnhancer
+        .withLazyDetail("count", calls::incrementAndGet)
+        .isolateWith(bulkhead)
+        .enhance(FixedHealthIndicator.up())
+        .health()
+        .getDetails()
+        .get("count");
+
+    @Actor
+    public void first(III_Result r) {
+        r.r1 = value(detail.getValue());
+    }
+
+    @Actor
+    public void second(III_Result r) {
+        r.r2 = value(detail.getValue());
+    }
+
+    @Arbiter
+    public void permits(III_Result r) {
+        r.r3 = bulkhead.getAvailablePermits();
+    }
+
+    private static int value(Object value) {
+        return value instanceof Integer ? (Integer) value : 0;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.JCStress;
+import org.openjdk.jcstress.Options;
+import org.openjdk.jcstress.infra.Status;
+import org.openjdk.jcstress.infra.collectors.DiskReadCollector;
+import org.openjdk.jcstress.infra.collectors.InProcessCollector;
+import org.openjdk.jcstress.infra.collectors.TestResult;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * Runs the jcstress tests like {@code org.openjdk.jcstress.Main}, but exits with a non-zero
+ * status if no test was run or if any test failed or errored, so that the build fails.
+ *
+ * @author agent
+ */
+public final class JCStressRunner {
+
+    private JCStressRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Options options = new Options(args);
+        if (!options.parse()) {
+            System.exit(1);
+        }
+        try {
+            new JCStress(options).run();
+        } catch (AssertionError e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        System.exit(verify(options.getResultFile()));
+    }
+
+    private static int verify(String resultFile) throws Exception {
+        if (!new File(resultFile).isFile()) {
+            System.err.println("No jcstress tests were run");
+            return 1;
+        }
+        final InProcessCollector collector = new InProcessCollector();
+        final DiskReadCollector reader = new DiskReadCollector(resultFile, collector);
+        try {
+            reader.dump();
+        } finally {
+            reader.close();
+        }
+        final Collection<TestResult> results = collector.getTestResults();
+        if (results.isEmpty()) {
+            System.err.println("No jcstress tests were run");
+            return 1;
+        }
+        int failures = 0;
+        for (TestResult result : results) {
+            if (result.status() != Status.NORMAL || !result.grading().isPassed) {
+                System.err.println("jcstress test " + result.getName() + " failed: "
+                    + result.status() + " " + result.grading().failureMessages);
+                failures++;
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+}
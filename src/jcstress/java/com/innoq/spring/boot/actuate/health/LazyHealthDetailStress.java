@@ -0,0 +1,47 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Value is calculated once and shared")
+@Outcome(expect = FORBIDDEN, desc = "Value calculated more than once")
+@State
+public class LazyHealthDetailStress {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final LazyHealthDetail sut = LazyHealthDetail.of(calls::incrementAndGet);
+
+    @Actor
+    public void first(II_Result r) {
+        r.r1 = (Integer) sut.getValue();
+    }
+
+    @Actor
+    public void second(II_Result r) {
+        r.r2 = (Integer) sut.getValue();
+    }
+}
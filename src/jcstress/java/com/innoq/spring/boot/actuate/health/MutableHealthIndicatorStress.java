@@ -0,0 +1,86 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.J_Result;
+import org.openjdk.jcstress.infra.results.LJ_Result;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+public class MutableHealthIndicatorStress {
+
+    @JCStressTest
+    @Outcome(id = {"DOWN, 1", "DOWN, 2"}, expect = ACCEPTABLE, desc = "Health read before check")
+    @Outcome(id = "UP, 2", expect = ACCEPTABLE, desc = "Health read after check")
+    @Outcome(id = "UP, 1", expect = FORBIDDEN, desc = "Health published before its generation")
+    @Outcome(expect = FORBIDDEN, desc = "Previous health lost during check")
+    @State
+    public static class CheckAndHealth {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final MutableHealthIndicator sut = MutableHealthIndicator.wrap(() ->
+            calls.incrementAndGet() == 1 ? Health.down().build() : Health.up().build());
+
+        public CheckAndHealth() {
+            sut.check();
+        }
+
+        @Actor
+        public void check() {
+            sut.check();
+        }
+
+        @Actor
+        public void health(LJ_Result r) {
+            r.r1 = sut.health().getStatus().getCode();
+            r.r2 = sut.getGeneration();
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "2", expect = ACCEPTABLE, desc = "Result of the last finished check is kept")
+    @Outcome(expect = FORBIDDEN, desc = "Generation lost or went backwards")
+    @State
+    public static class ConcurrentChecks {
+
+        private final MutableHealthIndicator sut =
+            MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+
+        @Actor
+        public void first() {
+            sut.check();
+        }
+
+        @Actor
+        public void second() {
+            sut.check();
+        }
+
+        @Arbiter
+        public void generation(J_Result r) {
+            r.r1 = sut.getGeneration();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.LLL_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+@JCStressTest
+@Outcome(id = {"UNKNOWN, UNKNOWN, UP", "UNKNOWN, UP, UP", "UP, UNKNOWN, UP", "UP, UP, UP"},
+    expect = ACCEPTABLE, desc = "Probe follows the snapshot of the indicator")
+@Outcome(expect = FORBIDDEN, desc = "Probe stuck on a stale snapshot")
+@State
+public class ProbeHealthIndicatorStress {
+
+    private final MutableHealthIndicator indicator =
+        MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+    private final ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+        .withIndicator("indicator", indicator)
+        .build();
+
+    @Actor
+    public void check() {
+        indicator.check();
+    }
+
+    @Actor
+    public void first(LLL_Result r) {
+        r.r1 = sut.health().getStatus().getCode();
+    }
+
+    @Actor
+    public void second(LLL_Result r) {
+        r.r2 = sut.health().getStatus().getCode();
+    }
+
+    @Arbiter
+    public void health(LLL_Result r) {
+        r.r3 = sut.health().getStatus().getCode();
+    }
+}
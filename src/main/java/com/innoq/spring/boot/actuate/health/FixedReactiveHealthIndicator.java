@@ -0,0 +1,88 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The reactive counterpart of {@link FixedHealthIndicator}, which emits a fixed health on every
+ * call to {@link #health()}.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class FixedReactiveHealthIndicator implements ReactiveHealthIndicator {
+
+    private final FixedHealthIndicator indicator;
+    private final Mono<Health> health;
+
+    private FixedReactiveHealthIndicator(FixedHealthIndicator indicator) {
+        this.indicator = requireNonNull(indicator, "Indicator must not be null");
+        this.health = Mono.just(indicator.health());
+    }
+
+    /**
+     * Returns a {@link FixedReactiveHealthIndicator} which emits the health of the given {@link
+     * FixedHealthIndicator}.
+     *
+     * @param indicator the indicator whose health is emitted
+     * @return a new instance which always emits the health of the given indicator
+     */
+    public static FixedReactiveHealthIndicator of(FixedHealthIndicator indicator) {
+        return new FixedReactiveHealthIndicator(indicator);
+    }
+
+    /**
+     * Creates a new {@link FixedReactiveHealthIndicator} with the given health.
+     *
+     * @param health the health to fix this instance to
+     * @return an new instance which always emits the given health
+     */
+    public static FixedReactiveHealthIndicator withHealth(Health health) {
+        return of(FixedHealthIndicator.withHealth(health));
+    }
+
+    /**
+     * Returns a {@link FixedReactiveHealthIndicator} instance which always emits a {@link Health}
+     * with the given status.
+     *
+     * @param status the status which will always be emitted
+     * @return an instance which always emits a health with the given status
+     */
+    public static FixedReactiveHealthIndicator withStatus(Status status) {
+        return of(FixedHealthIndicator.withStatus(status));
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return health;
+    }
+
+    /**
+     * Returns the fixed {@link Status} this {@link FixedReactiveHealthIndicator} emits on every
+     * call to {@link #health()}.
+     *
+     * @return the fixed status of this instance
+     */
+    public Status getStatus() {
+        return indicator.getStatus();
+    }
+}
@@ -15,44 +15,41 @@
  */
 package com.innoq.spring.boot.actuate.health;
 
-import org.springframework.boot.actuate.health.AbstractHealthAggregator;
-import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
 
-import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * {@link HealthAggregator} which returns a fixed {@link Status} instead of aggregating the real
+ * {@link StatusAggregator} which returns a fixed {@link Status} instead of aggregating the real
  * statuses of the given healths.
  *
  * @author Michael Vitz
  * @since 0.1.0
  */
-public final class FixedHealthAggregator extends AbstractHealthAggregator {
-
-    private static final FixedHealthAggregator UNKNOWN = new FixedHealthAggregator(Status.UNKNOWN);
-    private static final FixedHealthAggregator UP = new FixedHealthAggregator(Status.UP);
-    private static final FixedHealthAggregator DOWN = new FixedHealthAggregator(Status.DOWN);
-    private static final FixedHealthAggregator OUT_OF_SERVICE =
-        new FixedHealthAggregator(Status.OUT_OF_SERVICE);
+public final class FixedStatusAggregator implements StatusAggregator {
 
+    private static final FixedStatusAggregator UNKNOWN = new FixedStatusAggregator(Status.UNKNOWN);
+    private static final FixedStatusAggregator UP = new FixedStatusAggregator(Status.UP);
+    private static final FixedStatusAggregator DOWN = new FixedStatusAggregator(Status.DOWN);
+    private static final FixedStatusAggregator OUT_OF_SERVICE =
+        new FixedStatusAggregator(Status.OUT_OF_SERVICE);
 
     private final Status status;
 
-    private FixedHealthAggregator(Status status) {
+    private FixedStatusAggregator(Status status) {
         this.status = requireNonNull(status, "Status must not be null");
     }
 
     /**
-     * Returns a {@link FixedHealthAggregator} which always returns the given {@link Status}.
+     * Returns a {@link FixedStatusAggregator} which always returns the given {@link Status}.
      *
      * @param status the status which is always returned by this aggregator
      * @return an instance which always returns a health with the given status
      */
-    public static FixedHealthAggregator withStatus(Status status) {
+    public static FixedStatusAggregator withStatus(Status status) {
         if (status == Status.UNKNOWN) {
             return UNKNOWN;
         } else if (status == Status.UP) {
@@ -62,53 +59,53 @@ public final class FixedHealthAggregator extends AbstractHealthAggregator {
         } else if (status == Status.OUT_OF_SERVICE) {
             return OUT_OF_SERVICE;
         }
-        return new FixedHealthAggregator(status);
+        return new FixedStatusAggregator(status);
     }
 
     /**
-     * Returns a {@link FixedHealthAggregator} which always returns {@link Status#UNKNOWN}.
+     * Returns a {@link FixedStatusAggregator} which always returns {@link Status#UNKNOWN}.
      *
      * @return {@link #UNKNOWN}
      */
-    public static FixedHealthAggregator unknown() {
+    public static FixedStatusAggregator unknown() {
         return UNKNOWN;
     }
 
     /**
-     * Returns a {@link FixedHealthAggregator} which always returns {@link Status#UP}.
+     * Returns a {@link FixedStatusAggregator} which always returns {@link Status#UP}.
      *
      * @return {@link #UP}
      */
-    public static FixedHealthAggregator up() {
+    public static FixedStatusAggregator up() {
         return UP;
     }
 
     /**
-     * Returns a {@link FixedHealthAggregator} which always returns {@link Status#DOWN}.
+     * Returns a {@link FixedStatusAggregator} which always returns {@link Status#DOWN}.
      *
      * @return {@link #DOWN}
      */
-    public static FixedHealthAggregator down() {
+    public static FixedStatusAggregator down() {
         return DOWN;
     }
 
     /**
-     * Returns a {@link FixedHealthAggregator} which always returns {@link Status#OUT_OF_SERVICE}.
+     * Returns a {@link FixedStatusAggregator} which always returns {@link Status#OUT_OF_SERVICE}.
      *
      * @return {@link #OUT_OF_SERVICE}
      */
-    public static FixedHealthAggregator outOfService() {
+    public static FixedStatusAggregator outOfService() {
         return OUT_OF_SERVICE;
     }
 
     @Override
-    protected Status aggregateStatus(List<Status> candidates) {
+    public Status getAggregateStatus(Set<Status> statuses) {
         return status;
     }
 
     /**
-     * Returns the fixed {@link Status} this {@link FixedHealthAggregator} returns on every call to
-     * {@link #aggregate(Map)}.
+     * Returns the fixed {@link Status} this {@link FixedStatusAggregator} returns on every call to
+     * {@link #getAggregateStatus(Set)}.
      *
      * @return the fixed status of this instance
      */
@@ -0,0 +1,228 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits the number of concurrent health checks, so that a hanging check can not starve all the
+ * other ones.
+ * <p>
+ * Every {@link HealthIndicator} isolated by the same bulkhead shares its permits, which makes it
+ * possible to use a bulkhead per indicator or per group of indicators. If no permit is available
+ * the check is not executed at all and a {@link Health} with the {@link #REJECTED_DETAIL} detail
+ * is returned instead. Use {@link MutableHealthIndicator#wrap(HealthIndicator, HealthBulkhead)}
+ * for checks whose rejection should keep the last known health.
+ * <p>
+ * Permits are re-entrant per thread: a check which already holds a permit of a bulkhead does not
+ * acquire a second one when it calls another indicator isolated by the same bulkhead, e.g. a
+ * {@link HealthDetailEnhancer} whose details are isolated by it as well.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class HealthBulkhead {
+
+    /**
+     * Key of the detail which marks a {@link Health} as rejected by a bulkhead.
+     */
+    public static final String REJECTED_DETAIL = "rejected";
+
+    private static final Health REJECTED =
+        Health.unknown().withDetail(REJECTED_DETAIL, true).build();
+    private static final Health REJECTED_WITHOUT_DETAILS = Health.unknown().build();
+
+    private final int permits;
+    private final Semaphore semaphore;
+    private final long timeoutNanos;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+
+    private HealthBulkhead(int permits, Duration timeout) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Permits must be greater than zero");
+        }
+        requireNonNull(timeout, "Timeout must not be null");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Returns a new {@link HealthBulkhead} which allows the given number of concurrent checks and
+     * rejects further checks immediately.
+     *
+     * @param permits the maximum number of concurrent checks
+     * @return a new bulkhead with the given number of permits
+     */
+    public static HealthBulkhead withPermits(int permits) {
+        return withPermits(permits, Duration.ZERO);
+    }
+
+    /**
+     * Returns a new {@link HealthBulkhead} which allows the given number of concurrent checks and
+     * waits at most the given timeout for a free permit before rejecting a check.
+     *
+     * @param permits the maximum number of concurrent checks
+     * @param timeout the maximum time to wait for a free permit
+     * @return a new bulkhead with the given number of permits
+     */
+    public static HealthBulkhead withPermits(int permits, Duration timeout) {
+        return new HealthBulkhead(permits, timeout);
+    }
+
+    /**
+     * Returns a {@link HealthIndicator} which executes the given indicator only if a permit of
+     * this bulkhead is available. This applies to health requests with and without details, the
+     * latter are delegated to {@link HealthIndicator#getHealth(boolean)} of the given indicator.
+     *
+     * @param indicator the indicator to isolate
+     * @return a new indicator which is isolated by this bulkhead
+     */
+    public HealthIndicator isolate(HealthIndicator indicator) {
+        requireNonNull(indicator, "Indicator must not be null");
+        return new HealthIndicator() {
+
+            @Override
+            public Health health() {
+                return call(indicator::health).orElse(REJECTED);
+            }
+
+            @Override
+            public Health getHealth(boolean includeDetails) {
+                return call(() -> indicator.getHealth(includeDetails))
+                    .orElse(includeDetails ? REJECTED : REJECTED_WITHOUT_DETAILS);
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link ReactiveHealthIndicator} which subscribes to the given indicator only if a
+     * permit of this bulkhead is available. The permit is held until the health is emitted, the
+     * subscription is cancelled or fails. Health requests without details are delegated to
+     * {@link ReactiveHealthIndicator#getHealth(boolean)} of the given indicator.
+     * <p>
+     * As the health may be emitted on another thread, the permit is not re-entrant here, so the
+     * details of the given indicator must not be isolated by this bulkhead as well.
+     *
+     * @param indicator the indicator to isolate
+     * @return a new indicator which is isolated by this bulkhead
+     * @throws IllegalArgumentException if the details of the given indicator are isolated by this
+     *                                  bulkhead
+     */
+    public ReactiveHealthIndicator isolate(ReactiveHealthIndicator indicator) {
+        requireNonNull(indicator, "Indicator must not be null");
+        if (indicator instanceof ReactiveHealthDetailEnhancer
+                && ((ReactiveHealthDetailEnhancer) indicator).isIsolatedBy(this)) {
+            throw new IllegalArgumentException("Details must not be isolated by the same bulkhead");
+        }
+        return new ReactiveHealthIndicator() {
+
+            @Override
+            public Mono<Health> health() {
+                return subscribe(indicator::health, REJECTED);
+            }
+
+            @Override
+            public Mono<Health> getHealth(boolean includeDetails) {
+                return subscribe(() -> indicator.getHealth(includeDetails),
+                    includeDetails ? REJECTED : REJECTED_WITHOUT_DETAILS);
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of concurrent checks of this {@link HealthBulkhead}.
+     *
+     * @return the number of permits
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Returns the number of currently free permits of this {@link HealthBulkhead}.
+     *
+     * @return the number of free permits
+     */
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * Executes the given supplier if a permit is available.
+     *
+     * @param supplier the supplier to execute
+     * @param <T>      the type of the suppliers result
+     * @return the result of the supplier or an empty optional if no permit was available
+     */
+    <T> Optional<T> call(Supplier<T> supplier) {
+        if (Boolean.TRUE.equals(holding.get())) {
+            return Optional.of(supplier.get());
+        }
+        if (!tryAcquire()) {
+            return Optional.empty();
+        }
+        holding.set(true);
+        try {
+            return Optional.of(supplier.get());
+        } finally {
+            holding.remove();
+            semaphore.release();
+        }
+    }
+
+    private Mono<Health> subscribe(Supplier<Mono<Health>> supplier, Health rejected) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.just(rejected);
+            }
+            final Mono<Health> health;
+            try {
+                health = supplier.get();
+            } catch (RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+            return health.doFinally(signal -> semaphore.release());
+        });
+    }
+
+    private boolean tryAcquire() {
+        if (timeoutNanos == 0) {
+            return semaphore.tryAcquire();
+        }
+        try {
+            return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
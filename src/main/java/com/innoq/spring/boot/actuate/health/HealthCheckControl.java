@@ -0,0 +1,371 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lists and refreshes a set of named {@link MutableHealthIndicator}s on demand, e.g. via JMX.
+ * <p>
+ * Refreshes are executed in parallel on a small pool of its own. An indicator is only checked if
+ * its last check is older than the minimum refresh interval and concurrent refreshes of the same
+ * indicator share one check, so operators can not add load by refreshing repeatedly. A refresh
+ * waits at most for the refresh timeout. A hanging check is not interrupted, as the interruption
+ * would be reported as its health, but keeps running and is shared by further refreshes until it
+ * finishes. Failed, rejected and timed out checks are logged and not reported as refreshed. The
+ * background refresh started by {@link #scheduleRefresh(ScheduledExecutorService, Duration)} can
+ * be paused and resumed. Use {@link #registerAt(MBeanServer, ObjectName)} to manage a control via
+ * JMX.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class HealthCheckControl implements HealthCheckControlMBean, DisposableBean {
+
+    private static final Log LOG = LogFactory.getLog(HealthCheckControl.class);
+
+    private final Map<String, MutableHealthIndicator> indicators;
+    private final Duration minRefreshInterval;
+    private final Duration refreshTimeout;
+    private final HealthBulkhead bulkhead;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> refreshes =
+        new ConcurrentHashMap<>();
+    private volatile boolean paused;
+    private volatile Registration registration;
+
+    private HealthCheckControl(Map<String, MutableHealthIndicator> indicators,
+            Duration minRefreshInterval, Duration refreshTimeout, int parallelism,
+            HealthBulkhead bulkhead) {
+        this.indicators =
+            unmodifiableMap(requireNonNull(indicators, "Indicators must not be null"));
+        this.minRefreshInterval =
+            requireNonNull(minRefreshInterval, "Min refresh interval must not be null");
+        this.refreshTimeout = requireNonNull(refreshTimeout, "Refresh timeout must not be null");
+        this.bulkhead = bulkhead;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "health-check-control");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new {@link Builder} for constructing a new {@link HealthCheckControl}.
+     *
+     * @return a new builder for creating a new control
+     */
+    public static Builder create() {
+        return new Builder();
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getIndicators() {
+        final Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        indicators.forEach((name, indicator) -> {
+            final Map<String, Object> state = new LinkedHashMap<>();
+            state.put("status", indicator.health().getStatus().getCode());
+            state.put("generation", indicator.getGeneration());
+            final Instant lastChecked = indicator.getLastChecked();
+            state.put("lastChecked", lastChecked == null ? null : lastChecked.toString());
+            final Duration lastLatency = indicator.getLastLatency();
+            state.put("lastLatency", lastLatency == null ? null : lastLatency.toMillis());
+            result.put(name, state);
+        });
+        return result;
+    }
+
+    @Override
+    public List<String> refresh(String name) {
+        final MutableHealthIndicator indicator = indicators.get(name);
+        if (indicator == null) {
+            throw new IllegalArgumentException("Unknown indicator: " + name);
+        }
+        final long deadline = System.nanoTime() + refreshTimeout.toNanos();
+        return await(name, refresh(name, indicator), deadline)
+            ? singletonList(name) : emptyList();
+    }
+
+    @Override
+    public List<String> refreshAll() {
+        final Map<String, CompletableFuture<Boolean>> pending = new LinkedHashMap<>();
+        indicators.forEach((name, indicator) -> pending.put(name, refresh(name, indicator)));
+
+        final long deadline = System.nanoTime() + refreshTimeout.toNanos();
+        final List<String> refreshed = new ArrayList<>();
+        pending.forEach((name, refresh) -> {
+            if (await(name, refresh, deadline)) {
+                refreshed.add(name);
+            }
+        });
+        return refreshed;
+    }
+
+    @Override
+    public void pause() {
+        paused = true;
+    }
+
+    @Override
+    public void resume() {
+        paused = false;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Refreshes all indicators with the given interval using the given scheduler, unless the
+     * background refresh is paused.
+     *
+     * @param scheduler the scheduler to use
+     * @param interval  the interval between two refreshes
+     * @return the future of the scheduled refresh
+     */
+    public ScheduledFuture<?> scheduleRefresh(ScheduledExecutorService scheduler,
+            Duration interval) {
+        requireNonNull(scheduler, "Scheduler must not be null");
+        requireNonNull(interval, "Interval must not be null");
+        return scheduler.scheduleWithFixedDelay(() -> {
+            if (!paused) {
+                refreshAll();
+            }
+        }, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers this control as MBean under the given name at the given {@link MBeanServer}. The
+     * MBean is unregistered again when this control is destroyed.
+     *
+     * @param server the server to register this control at
+     * @param name   the name of the MBean
+     * @throws JMException if the registration fails, e.g. because the name is already in use
+     */
+    public void registerAt(MBeanServer server, ObjectName name) throws JMException {
+        requireNonNull(server, "Server must not be null");
+        requireNonNull(name, "Name must not be null");
+        final ObjectInstance instance = server.registerMBean(this, name);
+        registration = new Registration(server, instance.getObjectName());
+    }
+
+    @Override
+    public void destroy() {
+        final Registration current = registration;
+        if (current != null) {
+            registration = null;
+            current.unregister();
+        }
+        executor.shutdown();
+    }
+
+    boolean contains(String name) {
+        return indicators.containsKey(name);
+    }
+
+    private CompletableFuture<Boolean> refresh(String name, MutableHealthIndicator indicator) {
+        final CompletableFuture<Boolean> refresh = refreshes.computeIfAbsent(name,
+            key -> isDue(indicator) ? submit(name, indicator) : null);
+        if (refresh == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        refresh.whenComplete((result, e) -> refreshes.remove(name, refresh));
+        return refresh;
+    }
+
+    private CompletableFuture<Boolean> submit(String name, MutableHealthIndicator indicator) {
+        final CompletableFuture<Boolean> refresh = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                final boolean checked = indicator.check(bulkhead);
+                if (!checked) {
+                    LOG.warn("Refresh of health indicator '" + name + "' was rejected");
+                }
+                refresh.complete(checked);
+            } catch (RuntimeException | Error e) {
+                LOG.warn("Refresh of health indicator '" + name + "' failed", e);
+                refresh.completeExceptionally(e);
+            }
+        });
+        return refresh;
+    }
+
+    private boolean await(String name, CompletableFuture<Boolean> refresh, long deadline) {
+        try {
+            return refresh.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("Refresh of health indicator '" + name + "' timed out");
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean isDue(MutableHealthIndicator indicator) {
+        final Instant lastChecked = indicator.getLastChecked();
+        return lastChecked == null
+            || !lastChecked.plus(minRefreshInterval).isAfter(Instant.now());
+    }
+
+    private static final class Registration {
+
+        private final MBeanServer server;
+        private final ObjectName name;
+
+        private Registration(MBeanServer server, ObjectName name) {
+            this.server = server;
+            this.name = name;
+        }
+
+        private void unregister() {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                LOG.warn("Unregistering health check control '" + name + "' failed", e);
+            }
+        }
+    }
+
+    /**
+     * Builder for constructing a new {@link HealthCheckControl} instance.
+     */
+    public static final class Builder {
+
+        private final Map<String, MutableHealthIndicator> indicators = new LinkedHashMap<>();
+        private Duration minRefreshInterval = Duration.ofSeconds(1);
+        private Duration refreshTimeout = Duration.ofSeconds(10);
+        private int parallelism = 2;
+        private HealthBulkhead bulkhead;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an indicator which can be listed and refreshed.
+         *
+         * @param name      the name of the indicator
+         * @param indicator the indicator to control
+         * @return this builders instance for method chaining
+         */
+        public Builder withIndicator(String name, MutableHealthIndicator indicator) {
+            requireNonNull(name, "Name must not be null");
+            requireNonNull(indicator, "Indicator must not be null");
+            indicators.put(name, indicator);
+            return this;
+        }
+
+        /**
+         * Skips refreshes of indicators which were checked within the given interval. Defaults
+         * to one second.
+         *
+         * @param interval the minimum interval between two checks of the same indicator
+         * @return this builders instance for method chaining
+         */
+        public Builder limitRefreshesTo(Duration interval) {
+            requireNonNull(interval, "Interval must not be null");
+            if (interval.isNegative()) {
+                throw new IllegalArgumentException("Interval must not be negative");
+            }
+            this.minRefreshInterval = interval;
+            return this;
+        }
+
+        /**
+         * Limits the time a refresh waits for its checks. Checks which take longer keep running
+         * without being interrupted, but are not reported as refreshed. Defaults to ten seconds.
+         *
+         * @param timeout the maximum time to wait for the checks of a refresh
+         * @return this builders instance for method chaining
+         */
+        public Builder timeoutRefreshesAfter(Duration timeout) {
+            requireNonNull(timeout, "Timeout must not be null");
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Timeout must not be negative");
+            }
+            this.refreshTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent checks. Defaults to two.
+         *
+         * @param parallelism the maximum number of concurrent checks
+         * @return this builders instance for method chaining
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be greater than zero");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Executes the checks only if the given {@link HealthBulkhead} has a free permit. A
+         * rejected check keeps the stored health of its indicator and is not reported as
+         * refreshed.
+         *
+         * @param bulkhead the bulkhead which limits the concurrent checks
+         * @return this builders instance for method chaining
+         */
+        public Builder isolateWith(HealthBulkhead bulkhead) {
+            this.bulkhead = requireNonNull(bulkhead, "Bulkhead must not be null");
+            return this;
+        }
+
+        /**
+         * Returns a new {@link HealthCheckControl} for the former added indicators.
+         *
+         * @return a new control for the former added indicators
+         */
+        public HealthCheckControl build() {
+            return new HealthCheckControl(new LinkedHashMap<>(indicators), minRefreshInterval,
+                refreshTimeout, parallelism, bulkhead);
+        }
+    }
+}
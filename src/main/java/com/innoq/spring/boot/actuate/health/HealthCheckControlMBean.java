@@ -0,0 +1,67 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface of {@link HealthCheckControl}.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public interface HealthCheckControlMBean {
+
+    /**
+     * Returns the status, generation, time and latency of the last check of every indicator.
+     *
+     * @return the state of the last check by indicator name
+     */
+    Map<String, Map<String, Object>> getIndicators();
+
+    /**
+     * Checks the indicator with the given name unless it was checked recently.
+     *
+     * @param name the name of the indicator to check
+     * @return the name of the indicator if it was checked or an empty list otherwise
+     */
+    List<String> refresh(String name);
+
+    /**
+     * Checks all indicators in parallel which were not checked recently.
+     *
+     * @return the names of the checked indicators
+     */
+    List<String> refreshAll();
+
+    /**
+     * Pauses the background refresh.
+     */
+    void pause();
+
+    /**
+     * Resumes the background refresh.
+     */
+    void resume();
+
+    /**
+     * Returns whether the background refresh is paused.
+     *
+     * @return {@code true} if the background refresh is paused
+     */
+    boolean isPaused();
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An endpoint which lists the state of the last check of the indicators of a {@link
+ * HealthCheckControl}, refreshes them on demand and pauses or resumes their background refresh.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+@Endpoint(id = "healthchecks")
+public final class HealthCheckEndpoint {
+
+    private final HealthCheckControl control;
+
+    private HealthCheckEndpoint(HealthCheckControl control) {
+        this.control = requireNonNull(control, "Control must not be null");
+    }
+
+    /**
+     * Returns a new {@link HealthCheckEndpoint} for the given {@link HealthCheckControl}.
+     *
+     * @param control the control whose indicators are listed
+     * @return a new endpoint which lists the indicators of the given control
+     */
+    public static HealthCheckEndpoint expose(HealthCheckControl control) {
+        return new HealthCheckEndpoint(control);
+    }
+
+    /**
+     * Returns the state of the last check of every indicator.
+     *
+     * @return the state of the last check by indicator name
+     * @see HealthCheckControl#getIndicators()
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> indicators() {
+        return control.getIndicators();
+    }
+
+    /**
+     * Refreshes the indicator with the given name or all indicators if no name is given.
+     *
+     * @param name the name of the indicator to refresh or {@code null} for all indicators
+     * @return the names of the checked indicators
+     * @throws InvalidEndpointRequestException if no indicator with the given name exists
+     * @see HealthCheckControl#refresh(String)
+     * @see HealthCheckControl#refreshAll()
+     */
+    @WriteOperation
+    public List<String> refresh(@Nullable String name) {
+        if (name == null) {
+            return control.refreshAll();
+        }
+        if (!control.contains(name)) {
+            throw new InvalidEndpointRequestException("Unknown indicator: " + name,
+                "Unknown indicator");
+        }
+        return control.refresh(name);
+    }
+
+    /**
+     * Pauses or resumes the background refresh of the indicators.
+     *
+     * @param action either {@code pause} or {@code resume}
+     * @return whether the background refresh is paused afterwards
+     * @throws InvalidEndpointRequestException if the given action is unknown
+     * @see HealthCheckControl#pause()
+     * @see HealthCheckControl#resume()
+     */
+    @WriteOperation
+    public Map<String, Boolean> background(@Selector String action) {
+        if ("pause".equals(action)) {
+            control.pause();
+        } else if ("resume".equals(action)) {
+            control.resume();
+        } else {
+            throw new InvalidEndpointRequestException("Unknown action: " + action,
+                "Unknown action");
+        }
+        return singletonMap("paused", control.isPaused());
+    }
+}
@@ -17,28 +17,35 @@ package com.innoq.spring.boot.actuate.health;
 
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Supplier;
 
-import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 
 /**
  * This class can be used to enhance a given {@link HealthIndicator} with additional details.
+ * <p>
+ * The details are only calculated if the health is requested including its details.
  *
  * @author Michael Vitz
  * @since 0.1.0
  */
 public final class HealthDetailEnhancer implements HealthIndicator {
 
+    /**
+     * Key of the detail which marks a {@link Health} whose details exceeded the payload size.
+     */
+    public static final String TRUNCATED_DETAIL = "truncated";
+
     private final HealthIndicator indicator;
-    private final Map<String, Supplier<?>> details;
+    private final HealthDetails details;
 
-    private HealthDetailEnhancer(HealthIndicator indicator, Map<String, Supplier<?>> details) {
+    private HealthDetailEnhancer(HealthIndicator indicator, HealthDetails details) {
         this.indicator = requireNonNull(indicator, "Indicator must not be null");
-        this.details = unmodifiableMap(requireNonNull(details, "Details must not be null"));
+        this.details = requireNonNull(details, "Details must not be null");
     }
 
     /**
@@ -74,15 +81,27 @@ public final class HealthDetailEnhancer implements HealthIndicator {
         return create().withDetail(key, value);
     }
 
+    /**
+     * Creates a new {@link Builder} with the given lazy detail for constructing a new {@link
+     * HealthDetailEnhancer}.
+     *
+     * @param key   the key used to store the details value into the health object
+     * @param value a supplier which is used to calculate the details value on serialization
+     * @return a new builder for creating a new enhancer instance
+     * @see LazyHealthDetail
+     */
+    public static Builder withLazyDetail(String key, Supplier<?> value) {
+        return create().withLazyDetail(key, value);
+    }
+
     @Override
     public Health health() {
-        final Health health = indicator.health();
-
-        final Health.Builder builder = new Health.Builder(health.getStatus());
-        details.forEach((k, v) -> builder.withDetail(k, v.get()));
-        health.getDetails().forEach(builder::withDetail);
+        return details.enhance(indicator.health());
+    }
 
-        return builder.build();
+    @Override
+    public Health getHealth(boolean includeDetails) {
+        return includeDetails ? health() : indicator.getHealth(false);
     }
 
     /**
@@ -91,6 +110,9 @@ public final class HealthDetailEnhancer implements HealthIndicator {
     public static final class Builder {
 
         private final Map<String, Supplier<?>> details = new LinkedHashMap<>();
+        private HealthBulkhead bulkhead;
+        private int maxDetailSize = HealthDetails.UNLIMITED;
+        private int maxPayloadSize = HealthDetails.UNLIMITED;
 
         private Builder() {
         }
@@ -122,6 +144,66 @@ public final class HealthDetailEnhancer implements HealthIndicator {
             return this;
         }
 
+        /**
+         * Adds a lazy detail. The {@link Supplier} is only called when the health is serialized
+         * with its details, so it is not called for responses which only contain the status.
+         *
+         * @param key   the key used to store the details value into the health object
+         * @param value a supplier which is used to calculate the details value on serialization
+         * @return this builders instance for method chaining
+         * @see LazyHealthDetail
+         */
+        public Builder withLazyDetail(String key, Supplier<?> value) {
+            requireNonNull(value, "Value must not be null");
+            return withDetail(key, () -> LazyHealthDetail.of(value));
+        }
+
+        /**
+         * Limits the length of the string representation of every detail. Longer values are
+         * replaced by their truncated string representation.
+         *
+         * @param maxLength the maximum length of a details value
+         * @return this builders instance for method chaining
+         */
+        public Builder limitDetailSize(int maxLength) {
+            if (maxLength < 0) {
+                throw new IllegalArgumentException("Max length must not be negative");
+            }
+            this.maxDetailSize = maxLength;
+            return this;
+        }
+
+        /**
+         * Limits the summed up length of the keys and string representations of all details.
+         * Details exceeding this limit are dropped and the {@link #TRUNCATED_DETAIL} detail is
+         * added instead. As their value is not known in advance, lazy details count with their
+         * maximum length and are truncated to fit into the remaining payload.
+         *
+         * @param maxLength the maximum length of all details
+         * @return this builders instance for method chaining
+         */
+        public Builder limitPayloadSize(int maxLength) {
+            if (maxLength < 0) {
+                throw new IllegalArgumentException("Max length must not be negative");
+            }
+            this.maxPayloadSize = maxLength;
+            return this;
+        }
+
+        /**
+         * Calculates the dynamic details only if the given {@link HealthBulkhead} has a free
+         * permit. Otherwise the details are skipped and the {@link HealthBulkhead#REJECTED_DETAIL}
+         * detail is added instead. Lazy details acquire a permit of their own when they are
+         * calculated during serialization.
+         *
+         * @param bulkhead the bulkhead which limits the concurrent detail calculations
+         * @return this builders instance for method chaining
+         */
+        public Builder isolateWith(HealthBulkhead bulkhead) {
+            this.bulkhead = requireNonNull(bulkhead, "Bulkhead must not be null");
+            return this;
+        }
+
         /**
          * Returns a new {@link HealthDetailEnhancer} with the former added details which uses the
          * given {@link HealthIndicator} for the actual health check.
@@ -130,7 +212,23 @@ public final class HealthDetailEnhancer implements HealthIndicator {
          * @return a new enhancer which enhances the given indicator with the former set details
          */
         public HealthDetailEnhancer enhance(HealthIndicator indicator) {
-            return new HealthDetailEnhancer(indicator, details);
+            return new HealthDetailEnhancer(indicator, details());
+        }
+
+        /**
+         * Returns a new {@link ReactiveHealthDetailEnhancer} with the former added details which
+         * uses the given {@link ReactiveHealthIndicator} for the actual health check.
+         *
+         * @param indicator the indicator to enhance with the details
+         * @return a new enhancer which enhances the given indicator with the former set details
+         */
+        public ReactiveHealthDetailEnhancer enhance(ReactiveHealthIndicator indicator) {
+            return new ReactiveHealthDetailEnhancer(indicator, details());
+        }
+
+        private HealthDetails details() {
+            return new HealthDetails(new LinkedHashMap<>(details), bulkhead, maxDetailSize,
+                maxPayloadSize);
         }
     }
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The details added by {@link HealthDetailEnhancer} and {@link ReactiveHealthDetailEnhancer}.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+final class HealthDetails {
+
+    static final int UNLIMITED = -1;
+
+    private static final String ELLIPSIS = "...";
+
+    private final Map<String, Supplier<?>> details;
+    private final HealthBulkhead bulkhead;
+    private final int maxDetailSize;
+    private final int maxPayloadSize;
+
+    HealthDetails(Map<String, Supplier<?>> details, HealthBulkhead bulkhead, int maxDetailSize,
+            int maxPayloadSize) {
+        this.details = unmodifiableMap(requireNonNull(details, "Details must not be null"));
+        this.bulkhead = bulkhead;
+        this.maxDetailSize = maxDetailSize;
+        this.maxPayloadSize = maxPayloadSize;
+    }
+
+    /**
+     * Returns a new {@link Health} with the status and details of the given one enhanced with
+     * these details. Details of the given health take precedence and are added first, so they
+     * are kept when the details exceed the maximum payload size.
+     *
+     * @param health the health to enhance
+     * @return a new enhanced health
+     */
+    Health enhance(Health health) {
+        final Map<String, Object> values = new LinkedHashMap<>(health.getDetails());
+        if (bulkhead == null) {
+            addDetails(values);
+        } else if (!bulkhead.call(() -> addDetails(values)).isPresent()) {
+            values.putIfAbsent(HealthBulkhead.REJECTED_DETAIL, true);
+        }
+
+        final Health.Builder builder = new Health.Builder(health.getStatus());
+        limit(values).forEach(builder::withDetail);
+        return builder.build();
+    }
+
+    private Map<String, Object> addDetails(Map<String, Object> values) {
+        details.forEach((k, v) -> {
+            if (!values.containsKey(k)) {
+                values.put(k, v.get());
+            }
+        });
+        return values;
+    }
+
+    boolean isIsolatedBy(HealthBulkhead bulkhead) {
+        return this.bulkhead == bulkhead;
+    }
+
+    private Map<String, Object> limit(Map<String, Object> values) {
+        if (maxDetailSize == UNLIMITED && maxPayloadSize == UNLIMITED && bulkhead == null) {
+            return values;
+        }
+        final Map<String, Object> limited = new LinkedHashMap<>();
+        int payloadSize = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof LazyHealthDetail) {
+                // the size of a lazy value is unknown, so count its upper bound
+                int maxLength = maxDetailSize;
+                if (maxPayloadSize != UNLIMITED) {
+                    final int remaining = maxPayloadSize - payloadSize
+                        - entry.getKey().length() - ELLIPSIS.length();
+                    if (remaining < 0) {
+                        limited.put(HealthDetailEnhancer.TRUNCATED_DETAIL, true);
+                        break;
+                    }
+                    maxLength = maxLength == UNLIMITED ? remaining : Math.min(maxLength, remaining);
+                    payloadSize += entry.getKey().length() + maxLength + ELLIPSIS.length();
+                }
+                limited.put(entry.getKey(),
+                    ((LazyHealthDetail) value).limitedBy(maxLength, bulkhead));
+                continue;
+            }
+            final Object truncated = truncate(value, maxDetailSize);
+            payloadSize += entry.getKey().length() + String.valueOf(truncated).length();
+            if (maxPayloadSize != UNLIMITED && payloadSize > maxPayloadSize) {
+                limited.put(HealthDetailEnhancer.TRUNCATED_DETAIL, true);
+                break;
+            }
+            limited.put(entry.getKey(), truncated);
+        }
+        return limited;
+    }
+
+    /**
+     * Truncates the string representation of the given value to the given length.
+     *
+     * @param value     the value to truncate
+     * @param maxLength the maximum length or a negative value for no limit
+     * @return the given value if its string representation is short enough, otherwise its
+     * truncated string representation
+     */
+    static Object truncate(Object value, int maxLength) {
+        if (maxLength < 0) {
+            return value;
+        }
+        final String string = String.valueOf(value);
+        if (string.length() <= maxLength) {
+            return value;
+        }
+        return string.substring(0, maxLength) + ELLIPSIS;
+    }
+}
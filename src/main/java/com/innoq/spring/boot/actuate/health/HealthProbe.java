@@ -0,0 +1,52 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+/**
+ * The probe classes a {@link ProbeHealthIndicator} can be assigned to.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public enum HealthProbe {
+
+    /**
+     * Probe which answers whether the application is alive at all. It should only contain
+     * indicators which can be answered in constant time, like {@link FixedHealthIndicator}.
+     */
+    LIVENESS("liveness"),
+
+    /**
+     * Probe which answers whether the application is ready to serve requests. It should only
+     * contain indicators which return cached snapshots, like {@link MutableHealthIndicator}.
+     */
+    READINESS("readiness");
+
+    private final String id;
+
+    HealthProbe(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the id of this probe which is used as selector of the {@link ProbeHealthEndpoint}.
+     *
+     * @return the id of this probe
+     */
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link HealthIndicator} which keeps the application out of service until the first checks of
+ * the given {@link MutableHealthIndicator}s are done.
+ * <p>
+ * On the first {@link ContextRefreshedEvent}, or on a call to {@link #start()}, the checks of all
+ * indicators are executed in parallel in the background. During an optional warm-up period the
+ * checks are repeated to warm up caches, connection pools and the JIT. Until then this gate
+ * returns the health of {@link FixedHealthIndicator#outOfService()} and afterwards the one of
+ * {@link FixedHealthIndicator#up()}. Failing checks do not keep the gate closed, their indicators
+ * report their own health. Hanging checks do not keep the gate closed either: every round of checks
+ * is awaited at most for the check timeout and, during the warm-up, not beyond the end of the
+ * warm-up period. A check which is still running is not started again by a later round and is
+ * not interrupted when the gate opens, no further round is started after the warm-up period.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class HealthStartupGate
+    implements HealthIndicator, ApplicationListener<ContextRefreshedEvent> {
+
+    private final List<MutableHealthIndicator> indicators;
+    private final Duration warmUpPeriod;
+    private final Duration warmUpInterval;
+    private final Duration checkTimeout;
+    private final int parallelism;
+    private final HealthBulkhead bulkhead;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Void> opened = new CompletableFuture<>();
+    private volatile FixedHealthIndicator state = FixedHealthIndicator.outOfService();
+
+    private HealthStartupGate(List<MutableHealthIndicator> indicators, Duration warmUpPeriod,
+            Duration warmUpInterval, Duration checkTimeout, int parallelism,
+            HealthBulkhead bulkhead) {
+        this.indicators =
+            unmodifiableList(requireNonNull(indicators, "Indicators must not be null"));
+        this.warmUpPeriod = requireNonNull(warmUpPeriod, "Warm-up period must not be null");
+        this.warmUpInterval = requireNonNull(warmUpInterval, "Warm-up interval must not be null");
+        this.checkTimeout = requireNonNull(checkTimeout, "Check timeout must not be null");
+        this.parallelism = parallelism;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Creates a new {@link Builder} for constructing a new {@link HealthStartupGate}.
+     *
+     * @return a new builder for creating a new gate
+     */
+    public static Builder create() {
+        return new Builder();
+    }
+
+    @Override
+    public Health health() {
+        return state.health();
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        start();
+    }
+
+    /**
+     * Starts the initial checks and the warm-up in the background. Calling this method more than
+     * once has no further effect.
+     *
+     * @return a future which completes as soon as this gate is open
+     */
+    public CompletableFuture<Void> start() {
+        if (started.compareAndSet(false, true)) {
+            final Thread thread = new Thread(this::warmUp, "health-startup-gate");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return opened;
+    }
+
+    /**
+     * Returns whether the initial checks and the warm-up are done.
+     *
+     * @return {@code true} if this gate is open
+     */
+    public boolean isOpen() {
+        return opened.isDone();
+    }
+
+    private void warmUp() {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(parallelism, indicators.size())), runnable -> {
+                final Thread thread = new Thread(runnable, "health-startup-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+        final List<CompletableFuture<Void>> running = new ArrayList<>();
+        try {
+            final long deadline = System.nanoTime() + warmUpPeriod.toNanos();
+            boolean proceed = checkAll(executor, running, Long.MAX_VALUE);
+            while (proceed && pause(deadline)) {
+                proceed = checkAll(executor, running, deadline);
+            }
+        } finally {
+            running.forEach(check -> check.cancel(false));
+            executor.shutdown();
+            state = FixedHealthIndicator.up();
+            opened.complete(null);
+        }
+    }
+
+    private boolean checkAll(ExecutorService executor, List<CompletableFuture<Void>> running,
+            long deadline) {
+        for (int i = 0; i < indicators.size(); i++) {
+            if (i < running.size() && !running.get(i).isDone()) {
+                continue;
+            }
+            final MutableHealthIndicator indicator = indicators.get(i);
+            final CompletableFuture<Void> check =
+                CompletableFuture.runAsync(() -> indicator.check(bulkhead), executor);
+            if (i < running.size()) {
+                running.set(i, check);
+            } else {
+                running.add(check);
+            }
+        }
+        final long timeout = deadline == Long.MAX_VALUE ? checkTimeout.toNanos()
+            : Math.max(0, Math.min(checkTimeout.toNanos(), deadline - System.nanoTime()));
+        try {
+            CompletableFuture.allOf(running.toArray(new CompletableFuture[0]))
+                .get(timeout, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean pause(long deadline) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(warmUpInterval.toNanos(), remaining));
+            return System.nanoTime() - deadline < 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Builder for constructing a new {@link HealthStartupGate} instance.
+     */
+    public static final class Builder {
+
+        private final List<MutableHealthIndicator> indicators = new ArrayList<>();
+        private Duration warmUpPeriod = Duration.ZERO;
+        private Duration warmUpInterval = Duration.ZERO;
+        private Duration checkTimeout = Duration.ofSeconds(10);
+        private int parallelism = 4;
+        private HealthBulkhead bulkhead;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an indicator which is checked before the gate opens.
+         *
+         * @param indicator the indicator to check
+         * @return this builders instance for method chaining
+         */
+        public Builder withIndicator(MutableHealthIndicator indicator) {
+            indicators.add(requireNonNull(indicator, "Indicator must not be null"));
+            return this;
+        }
+
+        /**
+         * Repeats the checks of all indicators with the given interval until the given period
+         * since the start of the gate has passed.
+         *
+         * @param period   the time after which the gate opens at the earliest
+         * @param interval the pause between two repeated checks
+         * @return this builders instance for method chaining
+         */
+        public Builder warmUp(Duration period, Duration interval) {
+            requireNonNull(period, "Period must not be null");
+            requireNonNull(interval, "Interval must not be null");
+            if (period.isNegative() || interval.isNegative()) {
+                throw new IllegalArgumentException("Period and interval must not be negative");
+            }
+            if (!period.isZero() && interval.isZero()) {
+                throw new IllegalArgumentException(
+                    "Interval must be greater than zero if a period is given");
+            }
+            this.warmUpPeriod = period;
+            this.warmUpInterval = interval;
+            return this;
+        }
+
+        /**
+         * Limits the time to wait for a round of checks. A check which takes longer keeps running
+         * in the background, but does not delay the opening of the gate. Defaults to 10 seconds.
+         *
+         * @param timeout the maximum time to wait for a round of checks
+         * @return this builders instance for method chaining
+         */
+        public Builder timeoutChecksAfter(Duration timeout) {
+            requireNonNull(timeout, "Timeout must not be null");
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Timeout must not be negative");
+            }
+            this.checkTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Limits the number of checks which are executed in parallel. Defaults to 4.
+         *
+         * @param parallelism the maximum number of parallel checks
+         * @return this builders instance for method chaining
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be greater than zero");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Executes the checks only if the given {@link HealthBulkhead} has a free permit. A
+         * rejected check keeps the stored health of its indicator.
+         *
+         * @param bulkhead the bulkhead which limits the concurrent checks
+         * @return this builders instance for method chaining
+         */
+        public Builder isolateWith(HealthBulkhead bulkhead) {
+            this.bulkhead = requireNonNull(bulkhead, "Bulkhead must not be null");
+            return this;
+        }
+
+        /**
+         * Returns a new {@link HealthStartupGate} for the former added indicators.
+         *
+         * @return a new gate which checks the former added indicators
+         */
+        public HealthStartupGate build() {
+            return new HealthStartupGate(new ArrayList<>(indicators), warmUpPeriod,
+                warmUpInterval, checkTimeout, parallelism, bulkhead);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Health} detail whose value is only calculated when the health is serialized.
+ * <p>
+ * Health responses without details, e.g. for unauthorized requests, only contain the status, so
+ * expensive details wrapped into this class are neither calculated nor serialized for them. The
+ * value is calculated at most once per instance.
+ * <p>
+ * Lazy details added by a {@link HealthDetailEnhancer} which is isolated by a {@link
+ * HealthBulkhead} acquire a permit of that bulkhead when their value is calculated. If no permit
+ * is available the value is a map containing the {@link HealthBulkhead#REJECTED_DETAIL} detail,
+ * which is not kept, so the value is calculated again on the next call.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class LazyHealthDetail {
+
+    private final Supplier<?> supplier;
+    private final int maxLength;
+    private final HealthBulkhead bulkhead;
+    private boolean computed;
+    private Object value;
+
+    private LazyHealthDetail(Supplier<?> supplier, int maxLength, HealthBulkhead bulkhead) {
+        this.supplier = requireNonNull(supplier, "Supplier must not be null");
+        this.maxLength = maxLength;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Returns a new {@link LazyHealthDetail} which uses the given {@link Supplier} for
+     * calculating its value.
+     *
+     * @param supplier the supplier which is used to calculate the value
+     * @return a new lazy detail for the given supplier
+     */
+    public static LazyHealthDetail of(Supplier<?> supplier) {
+        return new LazyHealthDetail(supplier, HealthDetails.UNLIMITED, null);
+    }
+
+    /**
+     * Returns the value of this detail, calculating it on the first successful call.
+     *
+     * @return the value of this detail
+     */
+    @JsonValue
+    public synchronized Object getValue() {
+        if (!computed) {
+            final Optional<Optional<?>> calculated = calculate();
+            if (!calculated.isPresent()) {
+                return singletonMap(HealthBulkhead.REJECTED_DETAIL, true);
+            }
+            value = HealthDetails.truncate(calculated.get().orElse(null), maxLength);
+            computed = true;
+        }
+        return value;
+    }
+
+    private Optional<Optional<?>> calculate() {
+        if (bulkhead == null) {
+            return Optional.of(Optional.ofNullable(supplier.get()));
+        }
+        return bulkhead.call(() -> Optional.ofNullable(supplier.get()));
+    }
+
+    /**
+     * Returns whether the value of this detail was already calculated.
+     *
+     * @return {@code true} if {@link #getValue()} was called before
+     */
+    public synchronized boolean isComputed() {
+        return computed;
+    }
+
+    LazyHealthDetail limitedBy(int maxLength, HealthBulkhead bulkhead) {
+        if (maxLength < 0 && bulkhead == null) {
+            return this;
+        }
+        return new LazyHealthDetail(supplier, maxLength < 0 ? this.maxLength : maxLength,
+            bulkhead == null ? this.bulkhead : bulkhead);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return computed ? String.valueOf(value) : "<lazy>";
+    }
+}
@@ -18,6 +18,11 @@ package com.innoq.spring.boot.actuate.health;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -30,10 +35,13 @@ import static java.util.Objects.requireNonNull;
 public final class MutableHealthIndicator implements HealthIndicator {
 
     private final HealthIndicator indicator;
-    private Health health = Health.unknown().build();
+    private final HealthBulkhead bulkhead;
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicReference<Check> last = new AtomicReference<>(Check.NONE);
 
-    private MutableHealthIndicator(HealthIndicator indicator) {
+    private MutableHealthIndicator(HealthIndicator indicator, HealthBulkhead bulkhead) {
         this.indicator = requireNonNull(indicator, "Indicator must not be null");
+        this.bulkhead = bulkhead;
     }
 
     /**
@@ -44,20 +52,125 @@ public final class MutableHealthIndicator implements HealthIndicator {
      * @return a new instance which uses the given indicator for health detection
      */
     public static MutableHealthIndicator wrap(HealthIndicator indicator) {
-        return new MutableHealthIndicator(indicator);
+        return new MutableHealthIndicator(indicator, null);
+    }
+
+    /**
+     * Returns a {@link MutableHealthIndicator} instance which uses the given {@link
+     * HealthIndicator} for health detection, but only if the given {@link HealthBulkhead} has a
+     * free permit.
+     * <p>
+     * In contrast to wrapping an indicator isolated by {@link HealthBulkhead#isolate(
+     * HealthIndicator)} a rejected check keeps the stored {@link Health}.
+     *
+     * @param indicator the indicator to use for health detection
+     * @param bulkhead  the bulkhead which limits the concurrent checks
+     * @return a new instance which uses the given indicator for health detection
+     */
+    public static MutableHealthIndicator wrap(HealthIndicator indicator, HealthBulkhead bulkhead) {
+        return new MutableHealthIndicator(indicator,
+            requireNonNull(bulkhead, "Bulkhead must not be null"));
     }
 
     @Override
     public Health health() {
-        return health;
+        return last.get().health;
     }
 
     /**
      * Trigger the actual health check.
      * <p>
-     * This mutates the stored {@link Health} to use the new calculated one.
+     * This mutates the stored {@link Health} to use the new calculated one. If checks overlap the
+     * result of the check which finished last is kept. If the check is rejected by the bulkhead of
+     * this instance the stored health is kept as well. The same applies to a check which was
+     * interrupted, as its result most likely reports the interruption instead of the health.
+     *
+     * @return {@code true} if the check was executed, {@code false} if it was rejected or
+     * interrupted
      */
-    public void check() {
-        this.health = indicator.health();
+    public boolean check() {
+        if (bulkhead == null) {
+            return store();
+        }
+        return bulkhead.call(this::store).orElse(false);
+    }
+
+    /**
+     * Trigger the actual health check if the given {@link HealthBulkhead} has a free permit.
+     *
+     * @param outer the additional bulkhead to respect or {@code null}
+     * @return {@code true} if the check was executed, {@code false} if it was rejected or
+     * interrupted
+     */
+    boolean check(HealthBulkhead outer) {
+        return outer == null ? check() : outer.call(this::check).orElse(false);
+    }
+
+    private boolean store() {
+        final long start = System.nanoTime();
+        final Health health = indicator.health();
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        record(health, start);
+        return true;
+    }
+
+    /**
+     * Stores the given {@link Health} as result of a check which started at the given time.
+     *
+     * @param health the result of the check
+     * @param start  the {@link System#nanoTime()} when the check started
+     */
+    void record(Health health, long start) {
+        final Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        final Check check =
+            new Check(health, generations.incrementAndGet(), Instant.now(), latency);
+        last.accumulateAndGet(check, (current, next) ->
+            next.generation > current.generation ? next : current);
+    }
+
+    /**
+     * Returns the number of checks finished so far.
+     *
+     * @return the generation of the stored {@link Health}
+     */
+    public long getGeneration() {
+        return last.get().generation;
+    }
+
+    /**
+     * Returns the time when the check of the stored {@link Health} finished.
+     *
+     * @return the time of the last check or {@code null} if {@link #check()} was never called
+     */
+    public Instant getLastChecked() {
+        return last.get().checked;
+    }
+
+    /**
+     * Returns how long the check of the stored {@link Health} took.
+     *
+     * @return the latency of the last check or {@code null} if {@link #check()} was never called
+     */
+    public Duration getLastLatency() {
+        return last.get().latency;
+    }
+
+    private static final class Check {
+
+        private static final Check NONE = new Check(Health.unknown().build(), 0, null, null);
+
+        private final Health health;
+        private final long generation;
+        private final Instant checked;
+        private final Duration latency;
+
+        private Check(Health health, long generation, Instant checked, Duration latency) {
+            this.health = health;
+            this.generation = generation;
+            this.checked = checked;
+            this.latency = latency;
+        }
     }
 }
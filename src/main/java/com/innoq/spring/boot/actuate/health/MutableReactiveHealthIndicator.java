@@ -0,0 +1,121 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The reactive counterpart of {@link MutableHealthIndicator}, which decouples the query for the
+ * current health from the actual health check execution.
+ * <p>
+ * Like its blocking counterpart it keeps the result of the check which finished last and records
+ * its generation, time and latency. The instance returned by {@link #asBlocking()} shares this
+ * state, so the indicator can be registered at a {@link HealthCheckControl} or a {@link
+ * HealthStartupGate} as well.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class MutableReactiveHealthIndicator implements ReactiveHealthIndicator {
+
+    private final ReactiveHealthIndicator indicator;
+    private final MutableHealthIndicator blocking;
+    private final Mono<Health> health;
+
+    private MutableReactiveHealthIndicator(ReactiveHealthIndicator indicator) {
+        this.indicator = requireNonNull(indicator, "Indicator must not be null");
+        this.blocking = MutableHealthIndicator.wrap(() -> indicator.health()
+            .blockOptional()
+            .orElseGet(() -> Health.unknown().build()));
+        this.health = Mono.fromSupplier(blocking::health);
+    }
+
+    /**
+     * Returns a {@link MutableReactiveHealthIndicator} instance which uses the given {@link
+     * ReactiveHealthIndicator} for health detection.
+     *
+     * @param indicator the indicator to use for health detection
+     * @return a new instance which uses the given indicator for health detection
+     */
+    public static MutableReactiveHealthIndicator wrap(ReactiveHealthIndicator indicator) {
+        return new MutableReactiveHealthIndicator(indicator);
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return health;
+    }
+
+    /**
+     * Returns a {@link Mono} which triggers the actual health check on subscription.
+     * <p>
+     * This mutates the stored {@link Health} to use the new calculated one. If checks overlap the
+     * result of the check which finished last is kept.
+     *
+     * @return a mono which completes after the stored health was mutated
+     */
+    public Mono<Void> check() {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return indicator.health().doOnNext(next -> blocking.record(next, start));
+        }).then();
+    }
+
+    /**
+     * Returns a {@link MutableHealthIndicator} which shares the stored {@link Health} with this
+     * instance. Its {@link MutableHealthIndicator#check()} blocks until the wrapped reactive
+     * indicator emits its health, so it must not be called on a non-blocking thread.
+     *
+     * @return a blocking view of this instance
+     */
+    public MutableHealthIndicator asBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Returns the number of checks finished so far.
+     *
+     * @return the generation of the stored {@link Health}
+     */
+    public long getGeneration() {
+        return blocking.getGeneration();
+    }
+
+    /**
+     * Returns the time when the check of the stored {@link Health} finished.
+     *
+     * @return the time of the last check or {@code null} if no check finished yet
+     */
+    public Instant getLastChecked() {
+        return blocking.getLastChecked();
+    }
+
+    /**
+     * Returns how long the check of the stored {@link Health} took.
+     *
+     * @return the latency of the last check or {@code null} if no check finished yet
+     */
+    public Duration getLastLatency() {
+        return blocking.getLastLatency();
+    }
+}
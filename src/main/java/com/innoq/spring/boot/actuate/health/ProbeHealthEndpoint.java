@@ -0,0 +1,82 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A web endpoint which exposes {@link ProbeHealthIndicator}s under the id of their {@link
+ * HealthProbe}, e.g. {@code /actuator/probes/liveness}.
+ * <p>
+ * In contrast to the regular health endpoint only the aggregated status of the probe is returned,
+ * so the endpoint only evaluates the cheap indicators tagged with the probe and never calculates
+ * any of their details. The status is mapped to the HTTP status code by {@link
+ * HttpCodeStatusMapper#DEFAULT}.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+@WebEndpoint(id = "probes")
+public final class ProbeHealthEndpoint {
+
+    private final Map<String, ProbeHealthIndicator> indicators;
+
+    private ProbeHealthEndpoint(Map<String, ProbeHealthIndicator> indicators) {
+        this.indicators = indicators;
+    }
+
+    /**
+     * Returns a new {@link ProbeHealthEndpoint} for the given {@link ProbeHealthIndicator}s.
+     *
+     * @param indicators the probes to expose
+     * @return a new endpoint which exposes the given probes
+     */
+    public static ProbeHealthEndpoint expose(ProbeHealthIndicator... indicators) {
+        final Map<String, ProbeHealthIndicator> byId = new LinkedHashMap<>();
+        for (ProbeHealthIndicator indicator : indicators) {
+            requireNonNull(indicator, "Indicator must not be null");
+            byId.put(indicator.getProbe().getId(), indicator);
+        }
+        return new ProbeHealthEndpoint(byId);
+    }
+
+    /**
+     * Returns the status of the probe with the given id.
+     *
+     * @param probe the id of the probe
+     * @return the status of the probe or a not found response for unknown probes
+     */
+    @ReadOperation
+    public WebEndpointResponse<Health> probe(@Selector String probe) {
+        final ProbeHealthIndicator indicator = indicators.get(probe);
+        if (indicator == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        final Health health = indicator.health();
+        return new WebEndpointResponse<>(health,
+            HttpCodeStatusMapper.DEFAULT.getStatusCode(health.getStatus()));
+    }
+}
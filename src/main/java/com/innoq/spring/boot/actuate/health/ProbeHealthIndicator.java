@@ -0,0 +1,202 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.health.StatusAggregator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link HealthIndicator} which aggregates the indicators tagged with one {@link HealthProbe}.
+ * <p>
+ * The {@link #health()} of a probe only contains the aggregated status. The tagged indicators are
+ * asked for their health without details, so neither their dynamic nor their lazy details are
+ * calculated for a probe. If all tagged indicators are {@link FixedHealthIndicator}s the
+ * aggregated health is computed once and returned on every call. Otherwise the aggregated health
+ * is cached and only recomputed if at least one of the indicators returns another status than
+ * before.
+ * <p>
+ * Spring Boot renders a {@link CompositeHealthContributor} by aggregating its components itself,
+ * so a probe is not one, but returns a view of its tagged indicators by {@link #asContributor()}.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class ProbeHealthIndicator implements HealthIndicator {
+
+    private final HealthProbe probe;
+    private final StatusAggregator aggregator;
+    private final Map<String, HealthIndicator> contributors;
+    private final HealthIndicator[] indicators;
+    private final Health fixed;
+    private volatile Snapshot snapshot;
+
+    private ProbeHealthIndicator(HealthProbe probe, StatusAggregator aggregator,
+            Map<String, HealthIndicator> indicators) {
+        this.probe = requireNonNull(probe, "Probe must not be null");
+        this.aggregator = requireNonNull(aggregator, "Aggregator must not be null");
+        this.contributors = unmodifiableMap(indicators);
+        this.indicators = indicators.values().toArray(new HealthIndicator[0]);
+        this.fixed = allFixed(this.indicators) ? aggregate(statuses()) : null;
+    }
+
+    /**
+     * Creates a new {@link Builder} for constructing a {@link HealthProbe#LIVENESS} probe.
+     *
+     * @return a new builder for creating a new liveness probe
+     */
+    public static Builder liveness() {
+        return new Builder(HealthProbe.LIVENESS);
+    }
+
+    /**
+     * Creates a new {@link Builder} for constructing a {@link HealthProbe#READINESS} probe.
+     *
+     * @return a new builder for creating a new readiness probe
+     */
+    public static Builder readiness() {
+        return new Builder(HealthProbe.READINESS);
+    }
+
+    @Override
+    public Health health() {
+        if (fixed != null) {
+            return fixed;
+        }
+        final Status[] statuses = statuses();
+        final Snapshot current = snapshot;
+        if (current != null && Arrays.equals(current.statuses, statuses)) {
+            return current.health;
+        }
+        final Health health = aggregate(statuses);
+        snapshot = new Snapshot(statuses, health);
+        return health;
+    }
+
+    /**
+     * Returns a {@link CompositeHealthContributor} of the tagged indicators. If it is registered
+     * at the regular health endpoint, e.g. as a bean, the indicators are rendered as its
+     * components and their details are shown according to the configured {@code show-details}.
+     *
+     * @return a new composite contributor of the tagged indicators
+     */
+    public CompositeHealthContributor asContributor() {
+        return CompositeHealthContributor.fromMap(contributors);
+    }
+
+    /**
+     * Returns the {@link HealthProbe} the indicators of this instance are tagged with.
+     *
+     * @return the probe of this instance
+     */
+    public HealthProbe getProbe() {
+        return probe;
+    }
+
+    private Status[] statuses() {
+        final Status[] statuses = new Status[indicators.length];
+        for (int i = 0; i < indicators.length; i++) {
+            statuses[i] = indicators[i].getHealth(false).getStatus();
+        }
+        return statuses;
+    }
+
+    private Health aggregate(Status[] statuses) {
+        final Set<Status> distinct = new HashSet<>(Arrays.asList(statuses));
+        return Health.status(aggregator.getAggregateStatus(distinct)).build();
+    }
+
+    private static boolean allFixed(HealthIndicator[] indicators) {
+        for (HealthIndicator indicator : indicators) {
+            if (!(indicator instanceof FixedHealthIndicator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Snapshot {
+
+        private final Status[] statuses;
+        private final Health health;
+
+        private Snapshot(Status[] statuses, Health health) {
+            this.statuses = statuses;
+            this.health = health;
+        }
+    }
+
+    /**
+     * Builder for constructing a new {@link ProbeHealthIndicator} instance.
+     */
+    public static final class Builder {
+
+        private final HealthProbe probe;
+        private final Map<String, HealthIndicator> indicators = new LinkedHashMap<>();
+        private StatusAggregator aggregator = StatusAggregator.getDefault();
+
+        private Builder(HealthProbe probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * Tags the given {@link HealthIndicator} with the probe of this builder.
+         *
+         * @param name      the name of the indicator as component of the probe
+         * @param indicator the indicator to tag
+         * @return this builders instance for method chaining
+         */
+        public Builder withIndicator(String name, HealthIndicator indicator) {
+            requireNonNull(name, "Name must not be null");
+            requireNonNull(indicator, "Indicator must not be null");
+            indicators.put(name, indicator);
+            return this;
+        }
+
+        /**
+         * Uses the given {@link StatusAggregator} instead of {@link StatusAggregator#getDefault()}
+         * for aggregating the statuses of the tagged indicators.
+         *
+         * @param aggregator the aggregator to use
+         * @return this builders instance for method chaining
+         */
+        public Builder aggregateWith(StatusAggregator aggregator) {
+            this.aggregator = requireNonNull(aggregator, "Aggregator must not be null");
+            return this;
+        }
+
+        /**
+         * Returns a new {@link ProbeHealthIndicator} which aggregates the former tagged
+         * indicators.
+         *
+         * @return a new probe indicator for the former tagged indicators
+         */
+        public ProbeHealthIndicator build() {
+            return new ProbeHealthIndicator(probe, aggregator, new LinkedHashMap<>(indicators));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import reactor.core.publisher.Mono;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The reactive counterpart of {@link HealthDetailEnhancer}, created by {@link
+ * HealthDetailEnhancer.Builder#enhance(ReactiveHealthIndicator)}.
+ * <p>
+ * The details are calculated on the thread which emits the health of the enhanced indicator, so
+ * blocking detail suppliers should be avoided.
+ *
+ * @author agent
+ * @since 0.1.0
+ */
+public final class ReactiveHealthDetailEnhancer implements ReactiveHealthIndicator {
+
+    private final ReactiveHealthIndicator indicator;
+    private final HealthDetails details;
+
+    ReactiveHealthDetailEnhancer(ReactiveHealthIndicator indicator, HealthDetails details) {
+        this.indicator = requireNonNull(indicator, "Indicator must not be null");
+        this.details = requireNonNull(details, "Details must not be null");
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return indicator.health().map(details::enhance);
+    }
+
+    @Override
+    public Mono<Health> getHealth(boolean includeDetails) {
+        return includeDetails ? health() : indicator.getHealth(false);
+    }
+
+    boolean isIsolatedBy(HealthBulkhead bulkhead) {
+        return details.isIsolatedBy(bulkhead);
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FixedReactiveHealthIndicatorTest {
+
+    @Test
+    public void health_returns_given_health() throws Exception {
+        Health expectedHealth = Health.up().withDetail("foo", "bar").build();
+        FixedReactiveHealthIndicator sut = FixedReactiveHealthIndicator.withHealth(expectedHealth);
+
+        Health health = sut.health().block();
+
+        assertThat(health).isSameAs(expectedHealth);
+    }
+
+    @Test
+    public void withStatus_should_return_instance_with_given_status() throws Exception {
+        Status expectedStatus = new Status("FOO");
+        FixedReactiveHealthIndicator sut = FixedReactiveHealthIndicator.withStatus(expectedStatus);
+
+        Status status = sut.getStatus();
+
+        assertThat(status).isEqualTo(expectedStatus);
+    }
+
+    @Test
+    public void of_should_emit_health_of_given_indicator() throws Exception {
+        FixedHealthIndicator indicator = FixedHealthIndicator.down();
+        FixedReactiveHealthIndicator sut = FixedReactiveHealthIndicator.of(indicator);
+
+        Health health = sut.health().block();
+
+        assertThat(health).isSameAs(indicator.health());
+    }
+}
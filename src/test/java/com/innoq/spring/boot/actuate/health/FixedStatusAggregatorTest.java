@@ -16,45 +16,39 @@
 package com.innoq.spring.boot.actuate.health;
 
 import org.junit.Test;
-import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-public class FixedHealthAggregatorTest {
+public class FixedStatusAggregatorTest {
 
     @Test
-    public void aggregate_should_return_status_with_no_given_healths() throws Exception {
+    public void getAggregateStatus_should_return_status_with_no_given_statuses() throws Exception {
         Status expectedStatus = new Status("FOO");
-        FixedHealthAggregator sut = FixedHealthAggregator.withStatus(expectedStatus);
+        FixedStatusAggregator sut = FixedStatusAggregator.withStatus(expectedStatus);
 
-        Health health = sut.aggregate(Collections.emptyMap());
+        Status status = sut.getAggregateStatus(Collections.emptySet());
 
-        assertThat(health.getStatus()).isSameAs(expectedStatus);
+        assertThat(status).isSameAs(expectedStatus);
     }
 
     @Test
-    public void aggregate_should_return_status_with_different_healths_given() throws Exception {
+    public void getAggregateStatus_should_return_status_with_different_statuses_given()
+            throws Exception {
         Status expectedStatus = new Status("FOO");
-        FixedHealthAggregator sut = FixedHealthAggregator.withStatus(expectedStatus);
-
-        Map<String, Health> healths = new HashMap<>();
-        healths.put("foo", Health.down().build());
-        healths.put("bar", Health.outOfService().build());
+        FixedStatusAggregator sut = FixedStatusAggregator.withStatus(expectedStatus);
 
-        Health health = sut.aggregate(healths);
+        Status status = sut.getAggregateStatus(Status.DOWN, Status.OUT_OF_SERVICE);
 
-        assertThat(health.getStatus()).isSameAs(expectedStatus);
+        assertThat(status).isSameAs(expectedStatus);
     }
 
     @Test
     public void withStatus_should_return_instance_with_given_status() throws Exception {
         Status expectedStatus = new Status("FOO");
-        FixedHealthAggregator sut = FixedHealthAggregator.withStatus(expectedStatus);
+        FixedStatusAggregator sut = FixedStatusAggregator.withStatus(expectedStatus);
 
         Status status = sut.getStatus();
 
@@ -63,7 +57,7 @@ public class FixedHealthAggregatorTest {
 
     @Test
     public void unknown_should_return_instance_with_status_unknown() throws Exception {
-        FixedHealthAggregator sut = FixedHealthAggregator.unknown();
+        FixedStatusAggregator sut = FixedStatusAggregator.unknown();
 
         Status status = sut.getStatus();
 
@@ -72,7 +66,7 @@ public class FixedHealthAggregatorTest {
 
     @Test
     public void up_should_return_instance_with_status_up() throws Exception {
-        FixedHealthAggregator sut = FixedHealthAggregator.up();
+        FixedStatusAggregator sut = FixedStatusAggregator.up();
 
         Status status = sut.getStatus();
 
@@ -81,7 +75,7 @@ public class FixedHealthAggregatorTest {
 
     @Test
     public void down_should_return_instance_with_status_down() throws Exception {
-        FixedHealthAggregator sut = FixedHealthAggregator.down();
+        FixedStatusAggregator sut = FixedStatusAggregator.down();
 
         Status status = sut.getStatus();
 
@@ -90,7 +84,7 @@ public class FixedHealthAggregatorTest {
 
     @Test
     public void outOfService_should_return_health_with_unknown_outOfService() throws Exception {
-        FixedHealthAggregator sut = FixedHealthAggregator.outOfService();
+        FixedStatusAggregator sut = FixedStatusAggregator.outOfService();
 
         Status status = sut.getStatus();
 
@@ -99,32 +93,32 @@ public class FixedHealthAggregatorTest {
 
     @Test
     public void withStatus_should_return_cached_instance_for_status_unknown() throws Exception {
-        FixedHealthAggregator first = FixedHealthAggregator.withStatus(Status.UNKNOWN);
-        FixedHealthAggregator second = FixedHealthAggregator.withStatus(Status.UNKNOWN);
+        FixedStatusAggregator first = FixedStatusAggregator.withStatus(Status.UNKNOWN);
+        FixedStatusAggregator second = FixedStatusAggregator.withStatus(Status.UNKNOWN);
 
         assertThat(first).isSameAs(second);
     }
 
     @Test
     public void withStatus_should_return_cached_instance_for_status_up() throws Exception {
-        FixedHealthAggregator first = FixedHealthAggregator.withStatus(Status.UP);
-        FixedHealthAggregator second = FixedHealthAggregator.withStatus(Status.UP);
+        FixedStatusAggregator first = FixedStatusAggregator.withStatus(Status.UP);
+        FixedStatusAggregator second = FixedStatusAggregator.withStatus(Status.UP);
 
         assertThat(first).isSameAs(second);
     }
 
     @Test
     public void withStatus_should_return_cached_instance_for_status_down() throws Exception {
-        FixedHealthAggregator first = FixedHealthAggregator.withStatus(Status.DOWN);
-        FixedHealthAggregator second = FixedHealthAggregator.withStatus(Status.DOWN);
+        FixedStatusAggregator first = FixedStatusAggregator.withStatus(Status.DOWN);
+        FixedStatusAggregator second = FixedStatusAggregator.withStatus(Status.DOWN);
 
         assertThat(first).isSameAs(second);
     }
 
     @Test
     public void withStatus_should_return_cached_instance_for_status_outOfService() throws Exception {
-        FixedHealthAggregator first = FixedHealthAggregator.withStatus(Status.OUT_OF_SERVICE);
-        FixedHealthAggregator second = FixedHealthAggregator.withStatus(Status.OUT_OF_SERVICE);
+        FixedStatusAggregator first = FixedStatusAggregator.withStatus(Status.OUT_OF_SERVICE);
+        FixedStatusAggregator second = FixedStatusAggregator.withStatus(Status.OUT_OF_SERVICE);
 
         assertThat(first).isSameAs(second);
     }
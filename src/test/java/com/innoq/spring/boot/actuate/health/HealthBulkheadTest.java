@@ -0,0 +1,157 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HealthBulkheadTest {
+
+    @Test
+    public void withPermits_should_reject_non_positive_permits() throws Exception {
+        assertThatThrownBy(() -> HealthBulkhead.withPermits(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void isolate_should_return_health_of_isolated_indicator() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        HealthIndicator sut = bulkhead.isolate(FixedHealthIndicator.up());
+
+        Health health = sut.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void isolate_should_release_permit_if_indicator_fails() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        HealthIndicator failing = () -> {
+            throw new IllegalStateException("boom");
+        };
+        HealthIndicator sut = bulkhead.isolate(failing);
+
+        assertThatThrownBy(sut::health).isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void isolate_should_reject_check_if_no_permit_is_available() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HealthIndicator hanging = bulkhead.isolate((HealthIndicator) () -> {
+            started.countDown();
+            await(release);
+            return Health.up().build();
+        });
+        HealthIndicator sut = bulkhead.isolate(FixedHealthIndicator.up());
+
+        CompletableFuture<Health> pending = CompletableFuture.supplyAsync(hanging::health);
+        started.await(5, TimeUnit.SECONDS);
+        Health health = sut.health();
+        release.countDown();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(health.getDetails()).containsEntry(HealthBulkhead.REJECTED_DETAIL, true);
+        assertThat(pending.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void isolate_reactive_should_hold_permit_until_health_is_emitted() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        Sinks.One<Health> pending = Sinks.one();
+        ReactiveHealthIndicator pendingIndicator = pending::asMono;
+        ReactiveHealthIndicator hanging = bulkhead.isolate(pendingIndicator);
+        ReactiveHealthIndicator sut =
+            bulkhead.isolate(FixedReactiveHealthIndicator.withStatus(Status.UP));
+
+        Mono<Health> result = hanging.health().cache();
+        result.subscribe();
+        Health rejected = sut.health().block();
+        pending.tryEmitValue(Health.up().build());
+
+        assertThat(rejected.getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(rejected.getDetails()).containsEntry(HealthBulkhead.REJECTED_DETAIL, true);
+        assertThat(result.block().getStatus()).isEqualTo(Status.UP);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void isolate_should_delegate_health_without_details() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        AtomicInteger calls = new AtomicInteger();
+        HealthIndicator sut = bulkhead.isolate(HealthDetailEnhancer
+            .withDetail("foo", calls::incrementAndGet)
+            .enhance(FixedHealthIndicator.up()));
+
+        Health health = sut.getHealth(false);
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).isEmpty();
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void isolate_reactive_should_delegate_health_without_details() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        AtomicInteger calls = new AtomicInteger();
+        ReactiveHealthIndicator sut = bulkhead.isolate(HealthDetailEnhancer
+            .withDetail("foo", calls::incrementAndGet)
+            .enhance(FixedReactiveHealthIndicator.withStatus(Status.UP)));
+
+        Health health = sut.getHealth(false).block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).isEmpty();
+        assertThat(calls.get()).isEqualTo(0);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void isolate_reactive_should_reject_details_isolated_by_same_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        ReactiveHealthIndicator enhancer = HealthDetailEnhancer
+            .withDetail("foo", () -> "bar")
+            .isolateWith(bulkhead)
+            .enhance(FixedReactiveHealthIndicator.withStatus(Status.UP));
+
+        assertThatThrownBy(() -> bulkhead.isolate(enhancer))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
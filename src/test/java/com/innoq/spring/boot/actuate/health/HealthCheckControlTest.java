@@ -0,0 +1,210 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HealthCheckControlTest {
+
+    private final AtomicInteger checks = new AtomicInteger();
+    private final MutableHealthIndicator foo = MutableHealthIndicator.wrap(() -> {
+        checks.incrementAndGet();
+        return Health.up().build();
+    });
+    private final MutableHealthIndicator bar =
+        MutableHealthIndicator.wrap(FixedHealthIndicator.down());
+    private final HealthCheckControl sut = HealthCheckControl.create()
+        .withIndicator("foo", foo)
+        .withIndicator("bar", bar)
+        .build();
+
+    @After
+    public void tearDown() throws Exception {
+        sut.destroy();
+    }
+
+    @Test
+    public void getIndicators_should_list_state_of_all_indicators() throws Exception {
+        foo.check();
+
+        Map<String, Map<String, Object>> indicators = sut.getIndicators();
+
+        assertThat(indicators).containsOnlyKeys("foo", "bar");
+        assertThat(indicators.get("foo"))
+            .containsEntry("status", "UP")
+            .containsEntry("generation", 1L)
+            .containsKeys("lastChecked", "lastLatency");
+        assertThat(indicators.get("bar"))
+            .containsEntry("status", "UNKNOWN")
+            .containsEntry("generation", 0L)
+            .containsEntry("lastChecked", null);
+    }
+
+    @Test
+    public void refresh_should_check_given_indicator() throws Exception {
+        List<String> refreshed = sut.refresh("bar");
+
+        assertThat(refreshed).containsExactly("bar");
+        assertThat(bar.getGeneration()).isEqualTo(1);
+        assertThat(foo.getGeneration()).isEqualTo(0);
+    }
+
+    @Test
+    public void refresh_should_reject_unknown_indicator() throws Exception {
+        assertThatThrownBy(() -> sut.refresh("baz"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void refresh_should_skip_recently_checked_indicator() throws Exception {
+        sut.refresh("foo");
+
+        List<String> refreshed = sut.refresh("foo");
+
+        assertThat(refreshed).isEmpty();
+        assertThat(checks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void refresh_should_not_report_check_rejected_by_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        HealthCheckControl control = HealthCheckControl.create()
+            .withIndicator("foo", foo)
+            .isolateWith(bulkhead)
+            .build();
+
+        List<String> refreshed = bulkhead.call(() -> control.refresh("foo")).get();
+        control.destroy();
+
+        assertThat(refreshed).isEmpty();
+        assertThat(checks.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void refresh_should_not_report_failed_check() throws Exception {
+        HealthCheckControl control = HealthCheckControl.create()
+            .withIndicator("baz", MutableHealthIndicator.wrap(() -> {
+                throw new IllegalStateException("boom");
+            }))
+            .build();
+
+        List<String> refreshed = control.refresh("baz");
+        control.destroy();
+
+        assertThat(refreshed).isEmpty();
+    }
+
+    @Test
+    public void refresh_should_not_interrupt_check_exceeding_timeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        MutableHealthIndicator baz = MutableHealthIndicator.wrap(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                return Health.down(e).build();
+            }
+            return Health.up().build();
+        });
+        HealthCheckControl control = HealthCheckControl.create()
+            .withIndicator("baz", baz)
+            .timeoutRefreshesAfter(Duration.ofMillis(50))
+            .build();
+
+        List<String> refreshed = control.refresh("baz");
+        release.countDown();
+        for (int i = 0; i < 500 && baz.getGeneration() == 0; i++) {
+            Thread.sleep(10);
+        }
+        control.destroy();
+
+        assertThat(refreshed).isEmpty();
+        assertThat(interrupted.get()).isFalse();
+        assertThat(baz.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(baz.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void refreshAll_should_check_all_indicators() throws Exception {
+        List<String> refreshed = sut.refreshAll();
+
+        assertThat(refreshed).containsExactly("foo", "bar");
+        assertThat(foo.getGeneration()).isEqualTo(1);
+        assertThat(bar.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void scheduleRefresh_should_not_refresh_while_paused() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        sut.pause();
+
+        sut.scheduleRefresh(scheduler, Duration.ofMillis(10));
+        Thread.sleep(200);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(sut.isPaused()).isTrue();
+        assertThat(checks.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void scheduleRefresh_should_refresh_after_resume() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        sut.pause();
+        sut.resume();
+
+        sut.scheduleRefresh(scheduler, Duration.ofMillis(10));
+        Thread.sleep(200);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(checks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void registerAt_should_expose_control_as_mbean_until_destroyed() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.innoq.health:type=HealthCheckControl,name=test");
+
+        sut.registerAt(server, name);
+        server.invoke(name, "pause", new Object[0], new String[0]);
+
+        assertThat(sut.isPaused()).isTrue();
+        assertThat(server.getAttribute(name, "Paused")).isEqualTo(true);
+        sut.destroy();
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HealthCheckEndpointTest {
+
+    private final MutableHealthIndicator foo =
+        MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+    private final MutableHealthIndicator bar =
+        MutableHealthIndicator.wrap(FixedHealthIndicator.down());
+    private final HealthCheckControl control = HealthCheckControl.create()
+        .withIndicator("foo", foo)
+        .withIndicator("bar", bar)
+        .build();
+
+    @After
+    public void tearDown() throws Exception {
+        control.destroy();
+    }
+
+    @Test
+    public void indicators_should_list_indicators_of_control() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThat(sut.indicators()).containsOnlyKeys("foo", "bar");
+    }
+
+    @Test
+    public void refresh_should_check_given_indicator() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThat(sut.refresh("foo")).containsExactly("foo");
+        assertThat(bar.getGeneration()).isEqualTo(0);
+    }
+
+    @Test
+    public void refresh_should_check_all_indicators_without_name() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThat(sut.refresh(null)).containsExactly("foo", "bar");
+    }
+
+    @Test
+    public void refresh_should_reject_unknown_indicator_as_invalid_request() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThatThrownBy(() -> sut.refresh("baz"))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(foo.getGeneration()).isEqualTo(0);
+    }
+
+    @Test
+    public void background_should_pause_and_resume_refresh() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThat(sut.background("pause")).containsEntry("paused", true);
+        assertThat(control.isPaused()).isTrue();
+        assertThat(sut.background("resume")).containsEntry("paused", false);
+        assertThat(control.isPaused()).isFalse();
+    }
+
+    @Test
+    public void background_should_reject_unknown_action_as_invalid_request() throws Exception {
+        HealthCheckEndpoint sut = HealthCheckEndpoint.expose(control);
+
+        assertThatThrownBy(() -> sut.background("stop"))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(control.isPaused()).isFalse();
+    }
+}
@@ -17,7 +17,11 @@ package com.innoq.spring.boot.actuate.health;
 
 import org.junit.Test;
 import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class HealthDetailEnhancerTest {
@@ -75,4 +79,163 @@ public class HealthDetailEnhancerTest {
         assertThat(health.getDetails())
             .containsEntry("foo", "bar");
     }
+
+    @Test
+    public void health_should_mark_details_as_rejected_if_bulkhead_is_exhausted() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", () -> "bar")
+            .isolateWith(bulkhead)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health;
+        try (OccupiedPermit ignored = OccupiedPermit.of(bulkhead)) {
+            health = sut.health();
+        }
+
+        assertThat(health.getDetails())
+            .doesNotContainKey("foo")
+            .containsEntry(HealthBulkhead.REJECTED_DETAIL, true);
+    }
+
+    @Test
+    public void health_should_calculate_details_if_isolated_by_same_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        HealthDetailEnhancer enhancer = HealthDetailEnhancer
+            .withDetail("foo", () -> "bar")
+            .isolateWith(bulkhead)
+            .enhance(FixedHealthIndicator.up());
+        HealthIndicator sut = bulkhead.isolate(enhancer);
+
+        Health health = sut.health();
+
+        assertThat(health.getDetails())
+            .containsEntry("foo", "bar")
+            .doesNotContainKey(HealthBulkhead.REJECTED_DETAIL);
+    }
+
+    @Test
+    public void health_should_keep_indicator_details_exceeding_payload_size() throws Exception {
+        FixedHealthIndicator indicator = FixedHealthIndicator.withHealth(
+            Health.down()
+                .withDetail("error", "boom")
+                .build());
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", "bar")
+            .limitPayloadSize(10)
+            .enhance(indicator);
+
+        Health health = sut.health();
+
+        assertThat(health.getDetails())
+            .hasSize(2)
+            .containsEntry("error", "boom")
+            .containsEntry(HealthDetailEnhancer.TRUNCATED_DETAIL, true);
+    }
+
+    @Test
+    public void health_should_truncate_details_exceeding_detail_size() throws Exception {
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", "barbaz")
+            .withDetail("bar", "foo")
+            .limitDetailSize(3)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health = sut.health();
+
+        assertThat(health.getDetails())
+            .containsEntry("foo", "bar...")
+            .containsEntry("bar", "foo");
+    }
+
+    @Test
+    public void health_should_drop_details_exceeding_payload_size() throws Exception {
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", "bar")
+            .withDetail("bar", "foo")
+            .limitPayloadSize(10)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health = sut.health();
+
+        assertThat(health.getDetails())
+            .hasSize(2)
+            .containsEntry("foo", "bar")
+            .containsEntry(HealthDetailEnhancer.TRUNCATED_DETAIL, true);
+    }
+
+    @Test
+    public void health_should_not_calculate_lazy_details() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withLazyDetail("foo", calls::incrementAndGet)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health = sut.health();
+
+        assertThat(health.getDetails().get("foo")).isInstanceOf(LazyHealthDetail.class);
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void health_should_truncate_lazy_details_exceeding_detail_size() throws Exception {
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withLazyDetail("foo", () -> "barbaz")
+            .limitDetailSize(3)
+            .enhance(FixedHealthIndicator.up());
+
+        LazyHealthDetail detail = (LazyHealthDetail) sut.health().getDetails().get("foo");
+
+        assertThat(detail.getValue()).isEqualTo("bar...");
+    }
+
+    @Test
+    public void health_should_count_lazy_details_against_payload_size() throws Exception {
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withLazyDetail("foo", () -> "barbazqux")
+            .withDetail("bar", "foo")
+            .limitPayloadSize(12)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health = sut.health();
+
+        LazyHealthDetail detail = (LazyHealthDetail) health.getDetails().get("foo");
+        assertThat(detail.getValue()).isEqualTo("barbaz...");
+        assertThat(health.getDetails())
+            .hasSize(2)
+            .containsEntry(HealthDetailEnhancer.TRUNCATED_DETAIL, true);
+    }
+
+    @Test
+    public void health_should_calculate_lazy_details_within_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        AtomicInteger calls = new AtomicInteger();
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withLazyDetail("foo", calls::incrementAndGet)
+            .isolateWith(bulkhead)
+            .enhance(FixedHealthIndicator.up());
+        LazyHealthDetail detail = (LazyHealthDetail) sut.health().getDetails().get("foo");
+
+        Object value;
+        try (OccupiedPermit ignored = OccupiedPermit.of(bulkhead)) {
+            value = detail.getValue();
+        }
+
+        assertThat(value).isEqualTo(singletonMap(HealthBulkhead.REJECTED_DETAIL, true));
+        assertThat(calls.get()).isEqualTo(0);
+        assertThat(detail.getValue()).isEqualTo(1);
+    }
+
+    @Test
+    public void getHealth_without_details_should_not_calculate_details() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", calls::incrementAndGet)
+            .enhance(FixedHealthIndicator.up());
+
+        Health health = sut.getHealth(false);
+
+        assertThat(health.getDetails()).isEmpty();
+        assertThat(calls.get()).isEqualTo(0);
+    }
 }
@@ -0,0 +1,227 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HealthStartupGateTest {
+
+    @Test
+    public void health_should_return_out_of_service_before_start() throws Exception {
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(FixedHealthIndicator.up()))
+            .build();
+
+        Health health = sut.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(sut.isOpen()).isFalse();
+    }
+
+    @Test
+    public void start_should_check_all_indicators_before_opening() throws Exception {
+        MutableHealthIndicator first = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        MutableHealthIndicator second = MutableHealthIndicator.wrap(FixedHealthIndicator.down());
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(first)
+            .withIndicator(second)
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(first.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(second.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(sut.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void start_should_open_even_if_a_check_fails() throws Exception {
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(() -> {
+                throw new IllegalStateException("boom");
+            }))
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(sut.isOpen()).isTrue();
+    }
+
+    @Test
+    public void start_should_keep_health_of_checks_rejected_by_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        MutableHealthIndicator indicator = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(indicator)
+            .isolateWith(bulkhead)
+            .build();
+
+        bulkhead.call(() -> sut.start().thenApply(ignored -> true).join());
+
+        assertThat(sut.isOpen()).isTrue();
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(indicator.getGeneration()).isEqualTo(0);
+    }
+
+    @Test
+    public void start_should_repeat_checks_during_warm_up() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(() -> {
+                checks.incrementAndGet();
+                return Health.up().build();
+            }))
+            .warmUp(Duration.ofMillis(100), Duration.ofMillis(10))
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(checks.get()).isGreaterThan(1);
+    }
+
+    @Test
+    public void start_should_open_if_a_check_hangs_longer_than_timeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MutableHealthIndicator hanging = MutableHealthIndicator.wrap(() -> {
+            await(release);
+            return Health.down().build();
+        });
+        MutableHealthIndicator other = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(hanging)
+            .withIndicator(other)
+            .timeoutChecksAfter(Duration.ofMillis(50))
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(sut.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(other.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void start_should_open_at_end_of_warm_up_if_a_check_hangs() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(() -> {
+                if (checks.incrementAndGet() > 1) {
+                    await(release);
+                }
+                return Health.up().build();
+            }))
+            .warmUp(Duration.ofMillis(100), Duration.ofMillis(10))
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(checks.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void start_should_not_interrupt_check_running_at_end_of_warm_up() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        MutableHealthIndicator indicator = MutableHealthIndicator.wrap(() -> {
+            if (checks.incrementAndGet() > 1) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return Health.down(e).build();
+                }
+            }
+            return Health.up().build();
+        });
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(indicator)
+            .warmUp(Duration.ofMillis(100), Duration.ofMillis(10))
+            .build();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+        release.countDown();
+        for (int i = 0; i < 500 && indicator.getGeneration() < 2; i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(indicator.getGeneration()).isEqualTo(2);
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void start_should_not_pause_beyond_end_of_warm_up() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(() -> {
+                checks.incrementAndGet();
+                return Health.up().build();
+            }))
+            .warmUp(Duration.ofMillis(100), Duration.ofSeconds(1))
+            .build();
+        long start = System.nanoTime();
+
+        sut.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+        assertThat(checks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void warmUp_should_reject_zero_interval_for_positive_period() throws Exception {
+        assertThatThrownBy(() -> HealthStartupGate.create()
+            .warmUp(Duration.ofSeconds(1), Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void onApplicationEvent_should_start_gate_only_once() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        HealthStartupGate sut = HealthStartupGate.create()
+            .withIndicator(MutableHealthIndicator.wrap(() -> {
+                checks.incrementAndGet();
+                return Health.up().build();
+            }))
+            .build();
+        ContextRefreshedEvent event = new ContextRefreshedEvent(new StaticApplicationContext());
+
+        sut.onApplicationEvent(event);
+        sut.onApplicationEvent(event);
+        sut.start().get(5, TimeUnit.SECONDS);
+
+        assertThat(checks.get()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
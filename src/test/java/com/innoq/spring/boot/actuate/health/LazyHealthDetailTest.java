@@ -0,0 +1,85 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyHealthDetailTest {
+
+    @Test
+    public void of_should_not_calculate_value() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LazyHealthDetail sut = LazyHealthDetail.of(calls::incrementAndGet);
+
+        assertThat(sut.isComputed()).isFalse();
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void getValue_should_calculate_value_only_once() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LazyHealthDetail sut = LazyHealthDetail.of(calls::incrementAndGet);
+
+        sut.getValue();
+        Object value = sut.getValue();
+
+        assertThat(value).isEqualTo(1);
+        assertThat(sut.isComputed()).isTrue();
+    }
+
+    @Test
+    public void serialization_should_render_value() throws Exception {
+        Health health = Health.up()
+            .withDetail("foo", LazyHealthDetail.of(() -> "bar"))
+            .build();
+
+        String json = new ObjectMapper().writeValueAsString(health);
+
+        assertThat(json).contains("\"foo\":\"bar\"");
+    }
+
+    @Test
+    public void serialization_of_status_only_should_not_calculate_value() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HealthDetailEnhancer indicator = HealthDetailEnhancer
+            .withLazyDetail("foo", calls::incrementAndGet)
+            .enhance(FixedHealthIndicator.up());
+
+        String json = new ObjectMapper().writeValueAsString(indicator.getHealth(false));
+
+        assertThat(json).doesNotContain("foo");
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void serialization_with_details_should_calculate_value() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        HealthDetailEnhancer indicator = HealthDetailEnhancer
+            .withLazyDetail("foo", calls::incrementAndGet)
+            .enhance(FixedHealthIndicator.up());
+
+        String json = new ObjectMapper().writeValueAsString(indicator.getHealth(true));
+
+        assertThat(json).contains("\"foo\":1");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
@@ -19,6 +19,8 @@ import org.junit.Test;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class MutableHealthIndicatorTest {
@@ -41,4 +43,95 @@ public class MutableHealthIndicatorTest {
 
         assertThat(health.getStatus()).isEqualTo(Status.UP);
     }
+
+    @Test
+    public void check_should_increment_generation() throws Exception {
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        sut.check();
+        sut.check();
+
+        long generation = sut.getGeneration();
+
+        assertThat(generation).isEqualTo(2);
+    }
+
+    @Test
+    public void check_should_record_time_and_latency() throws Exception {
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        assertThat(sut.getLastChecked()).isNull();
+        assertThat(sut.getLastLatency()).isNull();
+
+        sut.check();
+
+        assertThat(sut.getLastChecked()).isNotNull();
+        assertThat(sut.getLastLatency()).isNotNull();
+    }
+
+    @Test
+    public void check_should_keep_previous_health_if_interrupted() throws Exception {
+        AtomicReference<Health> next = new AtomicReference<>(Health.up().build());
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(() -> {
+            Health health = next.get();
+            if (health.getStatus() == Status.DOWN) {
+                Thread.currentThread().interrupt();
+            }
+            return health;
+        });
+        sut.check();
+        next.set(Health.down().build());
+
+        boolean checked = sut.check();
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(checked).isFalse();
+        assertThat(sut.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(sut.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void check_should_keep_previous_health_if_rejected_by_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        AtomicReference<Health> next = new AtomicReference<>(Health.down().build());
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(next::get, bulkhead);
+        sut.check();
+        next.set(Health.up().build());
+
+        boolean checked;
+        try (OccupiedPermit ignored = OccupiedPermit.of(bulkhead)) {
+            checked = sut.check();
+        }
+
+        assertThat(checked).isFalse();
+        assertThat(sut.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(sut.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void check_should_keep_previous_health_if_rejected_by_outer_bulkhead() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        AtomicReference<Health> next = new AtomicReference<>(Health.down().build());
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(next::get);
+        sut.check(bulkhead);
+        next.set(Health.up().build());
+
+        boolean checked;
+        try (OccupiedPermit ignored = OccupiedPermit.of(bulkhead)) {
+            checked = sut.check(bulkhead);
+        }
+
+        assertThat(checked).isFalse();
+        assertThat(sut.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    public void check_should_not_be_rejected_by_outer_bulkhead_isolating_it_as_well() throws Exception {
+        HealthBulkhead bulkhead = HealthBulkhead.withPermits(1);
+        MutableHealthIndicator sut = MutableHealthIndicator.wrap(FixedHealthIndicator.up(), bulkhead);
+
+        boolean checked = sut.check(bulkhead);
+
+        assertThat(checked).isTrue();
+        assertThat(sut.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
 }
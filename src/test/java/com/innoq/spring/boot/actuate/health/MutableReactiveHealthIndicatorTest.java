@@ -0,0 +1,114 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MutableReactiveHealthIndicatorTest {
+
+    @Test
+    public void health_should_return_unknown_before_check_is_called() throws Exception {
+        MutableReactiveHealthIndicator sut =
+            MutableReactiveHealthIndicator.wrap(FixedReactiveHealthIndicator.of(
+                FixedHealthIndicator.up()));
+
+        Health health = sut.health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    public void health_should_return_status_from_check_after_check_is_called() throws Exception {
+        MutableReactiveHealthIndicator sut =
+            MutableReactiveHealthIndicator.wrap(FixedReactiveHealthIndicator.of(
+                FixedHealthIndicator.up()));
+        sut.check().block();
+
+        Health health = sut.health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void check_should_not_mutate_health_without_subscription() throws Exception {
+        MutableReactiveHealthIndicator sut =
+            MutableReactiveHealthIndicator.wrap(FixedReactiveHealthIndicator.of(
+                FixedHealthIndicator.up()));
+        sut.check();
+
+        Health health = sut.health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    public void check_should_record_generation_time_and_latency() throws Exception {
+        MutableReactiveHealthIndicator sut =
+            MutableReactiveHealthIndicator.wrap(FixedReactiveHealthIndicator.of(
+                FixedHealthIndicator.up()));
+        assertThat(sut.getLastChecked()).isNull();
+
+        sut.check().block();
+        sut.check().block();
+
+        assertThat(sut.getGeneration()).isEqualTo(2);
+        assertThat(sut.getLastChecked()).isNotNull();
+        assertThat(sut.getLastLatency()).isNotNull();
+    }
+
+    @Test
+    public void check_should_keep_result_of_check_finished_last() throws Exception {
+        Sinks.One<Health> slow = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        MutableReactiveHealthIndicator sut = MutableReactiveHealthIndicator.wrap(() ->
+            calls.incrementAndGet() == 1 ? slow.asMono() : Mono.just(Health.up().build()));
+        Mono<Void> first = sut.check().cache();
+        first.subscribe();
+
+        sut.check().block();
+        slow.tryEmitValue(Health.down().build());
+        first.block();
+
+        assertThat(sut.health().block().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(sut.getGeneration()).isEqualTo(2);
+    }
+
+    @Test
+    public void asBlocking_should_share_state_with_reactive_indicator() throws Exception {
+        MutableReactiveHealthIndicator sut =
+            MutableReactiveHealthIndicator.wrap(FixedReactiveHealthIndicator.of(
+                FixedHealthIndicator.up()));
+        HealthCheckControl control = HealthCheckControl.create()
+            .withIndicator("foo", sut.asBlocking())
+            .build();
+
+        List<String> refreshed = control.refresh("foo");
+        control.destroy();
+
+        assertThat(refreshed).containsExactly("foo");
+        assertThat(sut.health().block().getStatus()).isEqualTo(Status.UP);
+        assertThat(sut.getGeneration()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a permit of a {@link HealthBulkhead} on another thread, as permits are re-entrant for
+ * the thread which holds them.
+ */
+final class OccupiedPermit implements AutoCloseable {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Thread thread;
+
+    private OccupiedPermit(HealthBulkhead bulkhead) throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(1);
+        thread = new Thread(() -> bulkhead.call(() -> {
+            acquired.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }));
+        thread.start();
+        if (!acquired.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("No permit available");
+        }
+    }
+
+    static OccupiedPermit of(HealthBulkhead bulkhead) throws InterruptedException {
+        return new OccupiedPermit(bulkhead);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        release.countDown();
+        thread.join(5000);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProbeHealthEndpointTest {
+
+    @Test
+    public void probe_should_return_health_of_probe() throws Exception {
+        ProbeHealthIndicator indicator = ProbeHealthIndicator.liveness()
+            .withIndicator("foo", FixedHealthIndicator.up())
+            .build();
+        ProbeHealthEndpoint sut = ProbeHealthEndpoint.expose(indicator);
+
+        WebEndpointResponse<Health> response = sut.probe("liveness");
+
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(response.getBody()).isSameAs(indicator.health());
+    }
+
+    @Test
+    public void probe_should_return_status_only() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ProbeHealthEndpoint sut = ProbeHealthEndpoint.expose(ProbeHealthIndicator.liveness()
+            .withIndicator("foo", HealthDetailEnhancer
+                .withDetail("eager", calls::incrementAndGet)
+                .withLazyDetail("lazy", calls::incrementAndGet)
+                .enhance(FixedHealthIndicator.up()))
+            .build());
+
+        WebEndpointResponse<Health> response = sut.probe("liveness");
+        new ObjectMapper().writeValueAsString(response.getBody());
+
+        assertThat(response.getBody().getDetails()).isEmpty();
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void probe_should_return_service_unavailable_for_out_of_service() throws Exception {
+        ProbeHealthEndpoint sut = ProbeHealthEndpoint.expose(ProbeHealthIndicator.readiness()
+            .withIndicator("foo", FixedHealthIndicator.outOfService())
+            .build());
+
+        WebEndpointResponse<Health> response = sut.probe("readiness");
+
+        assertThat(response.getStatus())
+            .isEqualTo(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void probe_should_return_not_found_for_unknown_probe() throws Exception {
+        ProbeHealthEndpoint sut = ProbeHealthEndpoint.expose(
+            ProbeHealthIndicator.liveness().build());
+
+        WebEndpointResponse<Health> response = sut.probe("readiness");
+
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProbeHealthIndicatorTest {
+
+    @Test
+    public void health_should_aggregate_tagged_indicators() throws Exception {
+        ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+            .withIndicator("foo", FixedHealthIndicator.up())
+            .withIndicator("bar", FixedHealthIndicator.down())
+            .build();
+
+        Health health = sut.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).isEmpty();
+    }
+
+    @Test
+    public void health_should_not_calculate_details_of_tagged_indicators() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+            .withIndicator("foo", HealthDetailEnhancer
+                .withDetail("eager", calls::incrementAndGet)
+                .withLazyDetail("lazy", calls::incrementAndGet)
+                .enhance(FixedHealthIndicator.up()))
+            .build();
+
+        Health health = sut.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void asContributor_should_return_tagged_indicators_as_components() throws Exception {
+        FixedHealthIndicator foo = FixedHealthIndicator.up();
+        FixedHealthIndicator bar = FixedHealthIndicator.down();
+        ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+            .withIndicator("foo", foo)
+            .withIndicator("bar", bar)
+            .build();
+
+        CompositeHealthContributor contributor = sut.asContributor();
+
+        assertThat(sut).isNotInstanceOf(CompositeHealthContributor.class);
+        assertThat(contributor.getContributor("foo")).isSameAs(foo);
+        assertThat(contributor.getContributor("baz")).isNull();
+        assertThat(contributor.stream().map(NamedContributor::getName))
+            .containsExactly("foo", "bar");
+    }
+
+    @Test
+    public void health_should_return_precomputed_health_for_fixed_indicators() throws Exception {
+        ProbeHealthIndicator sut = ProbeHealthIndicator.liveness()
+            .withIndicator("foo", FixedHealthIndicator.up())
+            .build();
+
+        assertThat(sut.health()).isSameAs(sut.health());
+    }
+
+    @Test
+    public void health_should_not_aggregate_again_while_snapshots_are_unchanged() throws Exception {
+        AtomicInteger aggregations = new AtomicInteger();
+        MutableHealthIndicator indicator = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+            .withIndicator("foo", indicator)
+            .aggregateWith(statuses -> {
+                aggregations.incrementAndGet();
+                return Status.UP;
+            })
+            .build();
+
+        Health first = sut.health();
+        Health second = sut.health();
+
+        assertThat(first).isSameAs(second);
+        assertThat(aggregations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void health_should_aggregate_again_after_snapshot_changed() throws Exception {
+        MutableHealthIndicator indicator = MutableHealthIndicator.wrap(FixedHealthIndicator.up());
+        ProbeHealthIndicator sut = ProbeHealthIndicator.readiness()
+            .withIndicator("foo", indicator)
+            .build();
+        Health before = sut.health();
+
+        indicator.check();
+        Health after = sut.health();
+
+        assertThat(before.getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(after.getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    public void getProbe_should_return_probe_of_builder() throws Exception {
+        assertThat(ProbeHealthIndicator.liveness().build().getProbe())
+            .isEqualTo(HealthProbe.LIVENESS);
+        assertThat(ProbeHealthIndicator.readiness().build().getProbe())
+            .isEqualTo(HealthProbe.READINESS);
+    }
+}
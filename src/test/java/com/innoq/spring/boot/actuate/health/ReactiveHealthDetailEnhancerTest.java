@@ -0,0 +1,57 @@
+/**
+ * Copyright 2017 innoQ Deutschland GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.innoq.spring.boot.actuate.health;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveHealthDetailEnhancerTest {
+
+    @Test
+    public void health_should_include_added_and_enhanced_indicator_details() throws Exception {
+        FixedReactiveHealthIndicator indicator = FixedReactiveHealthIndicator.withHealth(
+            Health.down()
+                .withDetail("foo", "bar")
+                .build());
+        ReactiveHealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("bar", "foo").enhance(indicator);
+
+        Health health = sut.health().block();
+
+        assertThat(health.getStatus()).isEqualTo(indicator.getStatus());
+        assertThat(health.getDetails())
+            .hasSize(2)
+            .containsEntry("foo", "bar")
+            .containsEntry("bar", "foo");
+    }
+
+    @Test
+    public void getHealth_without_details_should_not_calculate_details() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ReactiveHealthDetailEnhancer sut = HealthDetailEnhancer
+            .withDetail("foo", calls::incrementAndGet)
+            .enhance(FixedReactiveHealthIndicator.of(FixedHealthIndicator.up()));
+
+        Health health = sut.getHealth(false).block();
+
+        assertThat(health.getDetails()).isEmpty();
+        assertThat(calls.get()).isEqualTo(0);
+    }
+}